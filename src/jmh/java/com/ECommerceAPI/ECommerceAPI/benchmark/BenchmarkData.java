@@ -0,0 +1,64 @@
+package com.ECommerceAPI.ECommerceAPI.benchmark;
+
+import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.CartItem;
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Detached entities shaped like the ones the services build, with fixed values so runs are comparable
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+        user.setEmail("benchmark@example.com");
+        return user;
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName("Product " + i);
+            product.setDescription("Description of product " + i);
+            // Two-decimal prices with varying digits, as the catalog stores them
+            product.setPrice(BigDecimal.valueOf(999 + i * 37L % 10_000, 2));
+            product.setStockQuantity(100);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static Cart cart(List<Product> products) {
+        Cart cart = new Cart();
+        cart.setUser(user());
+        List<CartItem> items = new ArrayList<>(products.size());
+        for (Product product : products) {
+            CartItem item = new CartItem(cart, product);
+            item.setQuantity(1 + (int) (product.getId() % 3));
+            items.add(item);
+        }
+        cart.setItems(items);
+        return cart;
+    }
+
+    static Order order(List<Product> products) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setUser(user());
+        products.forEach(product -> order.addItem(product, 1 + (int) (product.getId() % 3)));
+        order.setOrderDate(LocalDateTime.of(2025, 1, 1, 12, 0));
+        return order;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ECommerceAPI.ECommerceAPI.benchmark;
+
+import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.CartItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartTotalBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int itemCount;
+
+    private Cart cart;
+    private CartItem lastItem;
+
+    // Rebuilt each iteration so the incremental benchmarks don't grow the total without bound
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cart = BenchmarkData.cart(BenchmarkData.products(itemCount));
+        lastItem = cart.getItems().get(itemCount - 1);
+    }
+
+    // Full recomputation, as done when a cart is loaded or its item list replaced
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        cart.calculateTotal();
+        return cart.getTotalAmount();
+    }
+
+    // What adding one more unit of an existing line costs: a membership check plus one addition
+    @Benchmark
+    public BigDecimal itemAdded() {
+        cart.itemAdded(lastItem, 1);
+        return cart.getTotalAmount();
+    }
+}
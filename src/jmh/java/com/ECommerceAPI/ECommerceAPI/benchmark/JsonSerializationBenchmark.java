@@ -0,0 +1,84 @@
+package com.ECommerceAPI.ECommerceAPI.benchmark;
+
+import com.ECommerceAPI.ECommerceAPI.model.CursorPage;
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.Payment;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    // Items per order; a payment carries its whole order graph
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private ObjectMapper objectMapper;
+    private Product product;
+    private List<Product> productPage;
+    private Order order;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        // Configured like the mapper Spring Boot gives the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+        List<Product> products = BenchmarkData.products(Math.max(itemCount, CursorPage.DEFAULT_PAGE_SIZE));
+        product = products.get(0);
+        productPage = products.subList(0, CursorPage.DEFAULT_PAGE_SIZE);
+        order = BenchmarkData.order(products.subList(0, itemCount));
+        payment = new Payment();
+        payment.setId(1L);
+        payment.setOrder(order);
+        payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        payment.setAmount(order.getTotalAmount());
+        payment.setTransactionId("TXN-BENCHMARK-0001");
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    // One page of the default product listing size
+    @Benchmark
+    public byte[] serializeProductPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serializePayment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+}
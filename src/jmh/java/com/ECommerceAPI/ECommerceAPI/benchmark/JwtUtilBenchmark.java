@@ -0,0 +1,78 @@
+package com.ECommerceAPI.ECommerceAPI.benchmark;
+
+import com.ECommerceAPI.ECommerceAPI.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "aVeryLongAndSecureSecretKeyThatIsAtLeast256BitsLongForHS256";
+    static final long EXPIRATION = 86400000L;
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, EXPIRATION);
+        userDetails = new User("benchmark-user", "password", List.of());
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    // Mirrors the request filter before the signing key and parser were built once:
+    // extractUsername, then validateToken re-parsing for the subject and the expiry
+    @Benchmark
+    public boolean validateTokenPerCallParser() {
+        String username = legacyClaims(token).getSubject();
+        boolean subjectMatches = legacyClaims(token).getSubject().equals(username);
+        return subjectMatches && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public JwtUtil.TokenClaims validateAndExtract() {
+        return jwtUtil.validateAndExtract(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ECommerceAPI.ECommerceAPI.benchmark;
+
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.OrderItem;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int itemCount;
+
+    private List<Product> products;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.products(itemCount);
+        order = BenchmarkData.order(products);
+    }
+
+    // OrderService.placeOrder: items are captured one by one and the total accumulates as they are added
+    @Benchmark
+    public BigDecimal buildOrder() {
+        return BenchmarkData.order(products).getTotalAmount();
+    }
+
+    // Re-summing the stored items with a stream reduction, as totals were computed before they were stored
+    @Benchmark
+    public BigDecimal reduceLineTotals() {
+        return order.getItems().stream()
+            .map(OrderItem::getLineTotal)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
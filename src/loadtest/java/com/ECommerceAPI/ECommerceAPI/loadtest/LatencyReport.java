@@ -0,0 +1,107 @@
+package com.ECommerceAPI.ECommerceAPI.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms per endpoint template and per scenario, in microseconds with three significant digits.
+// Scenario latency runs from the scheduled arrival, so time spent waiting for a free slot is included
+final class LatencyReport {
+
+    static final int NO_RESPONSE = -1;
+
+    private static final class Stats {
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> failedStatuses = new ConcurrentHashMap<>();
+
+        void record(long nanos, boolean failed, int status) {
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (failed) {
+                errors.increment();
+                failedStatuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    private final Map<String, Stats> endpoints = new ConcurrentSkipListMap<>();
+    private final Map<Scenario, Stats> scenarios = new ConcurrentSkipListMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    void recordRequest(String endpoint, long nanos, int status) {
+        boolean failed = status == NO_RESPONSE || status >= 400;
+        endpoints.computeIfAbsent(endpoint, key -> new Stats()).record(nanos, failed, status);
+    }
+
+    void recordScenario(Scenario scenario, long nanos, boolean failed) {
+        scenarios.computeIfAbsent(scenario, key -> new Stats()).record(nanos, failed, NO_RESPONSE);
+    }
+
+    // An arrival that found every slot busy; it is not started, as in an open model the client would have given up
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    // Only called between phases, once every scenario of the previous phase has finished
+    void reset() {
+        endpoints.clear();
+        scenarios.clear();
+        dropped.reset();
+    }
+
+    void print(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%nMeasured %.1f s, %d arrivals dropped%n", seconds, dropped.sum());
+
+        out.println();
+        printHeader(out, "Scenario");
+        scenarios.forEach((scenario, stats) -> printRow(out, scenario.label(), stats, seconds));
+
+        out.println();
+        printHeader(out, "Endpoint");
+        endpoints.forEach((endpoint, stats) -> printRow(out, endpoint, stats, seconds));
+
+        Map<String, Map<Integer, LongAdder>> failures = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> {
+            if (!stats.failedStatuses.isEmpty()) {
+                failures.put(endpoint, new TreeMap<>(stats.failedStatuses));
+            }
+        });
+        if (!failures.isEmpty()) {
+            out.println();
+            out.println("Failed requests by status (-1: no response)");
+            failures.forEach((endpoint, statuses) -> statuses.forEach((status, count) ->
+                out.printf("  %-45s %4d %8d%n", endpoint, status, count.sum())));
+        }
+    }
+
+    private static void printHeader(PrintStream out, String title) {
+        out.printf("%-45s %8s %7s %8s %9s %9s %9s %9s%n",
+            title, "count", "errors", "per sec", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    private static void printRow(PrintStream out, String name, Stats stats, double seconds) {
+        Histogram latency = stats.latency.copy();
+        out.printf("%-45s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f%n",
+            name,
+            latency.getTotalCount(),
+            stats.errors.sum(),
+            latency.getTotalCount() / seconds,
+            millis(latency.getValueAtPercentile(50)),
+            millis(latency.getValueAtPercentile(99)),
+            millis(latency.getValueAtPercentile(99.9)),
+            millis(latency.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ECommerceAPI.ECommerceAPI.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+// Sends scenario steps to the embedded instance and records each one under its endpoint template,
+// so /api/cart/7/add/42 and /api/cart/9/add/3 land in the same histogram
+final class LoadClient {
+
+    static final class StepFailedException extends RuntimeException {
+        StepFailedException(String message) {
+            super(message);
+        }
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final LatencyReport report;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    LoadClient(URI baseUri, LatencyReport report) {
+        this.baseUri = baseUri;
+        this.report = report;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    JsonNode get(String endpoint, String path, VirtualUser user) {
+        return send(endpoint, request(path, user).GET(), user);
+    }
+
+    JsonNode post(String endpoint, String path, Object body, VirtualUser user) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+        return send(endpoint, request(path, user).header("Content-Type", "application/json").POST(publisher), user);
+    }
+
+    JsonNode delete(String endpoint, String path, VirtualUser user) {
+        return send(endpoint, request(path, user).DELETE(), user);
+    }
+
+    private HttpRequest.Builder request(String path, VirtualUser user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (user != null) {
+            builder.header("Authorization", "Bearer " + user.token());
+        }
+        return builder;
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder builder, VirtualUser user) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            report.recordRequest(endpoint, System.nanoTime() - start, LatencyReport.NO_RESPONSE);
+            throw new StepFailedException(endpoint + " failed: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StepFailedException(endpoint + " interrupted");
+        }
+        report.recordRequest(endpoint, System.nanoTime() - start, response.statusCode());
+
+        if (response.statusCode() >= 400) {
+            throw new StepFailedException(endpoint + " returned " + response.statusCode());
+        }
+        if (response.body().length == 0) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new StepFailedException(endpoint + " returned a body that is not JSON");
+        }
+    }
+}
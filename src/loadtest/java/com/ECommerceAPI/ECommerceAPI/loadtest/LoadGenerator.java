@@ -0,0 +1,130 @@
+package com.ECommerceAPI.ECommerceAPI.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Starts scenarios on virtual threads, picking each one by weight from the configured mix.
+// Every running scenario holds a user of its own, so no two sessions share a cart
+final class LoadGenerator {
+
+    private final LoadTestOptions options;
+    private final LoadClient client;
+    private final LatencyReport report;
+    private final long[] productIds;
+    private final BlockingQueue<VirtualUser> idleUsers;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    LoadGenerator(LoadTestOptions options, LoadClient client, LatencyReport report,
+                  List<VirtualUser> users, long[] productIds) {
+        this.options = options;
+        this.client = client;
+        this.report = report;
+        this.productIds = productIds;
+        this.idleUsers = new ArrayBlockingQueue<>(users.size(), false, users);
+
+        List<Map.Entry<Scenario, Integer>> weighted = options.mix().entrySet().stream()
+            .filter(entry -> entry.getValue() > 0)
+            .toList();
+        this.scenarios = new Scenario[weighted.size()];
+        this.cumulativeWeights = new int[weighted.size()];
+        int total = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            total += weighted.get(i).getValue();
+            scenarios[i] = weighted.get(i).getKey();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    // Returns once the phase is over and every scenario it started has finished
+    void run(Duration duration) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (options.rate() > 0) {
+                runOpen(executor, System.nanoTime() + duration.toNanos());
+            } else {
+                runClosed(executor, System.nanoTime() + duration.toNanos());
+            }
+        }
+    }
+
+    // Arrivals follow a Poisson process at the configured rate. The schedule never waits for responses,
+    // so a slow server shows up as latency and dropped arrivals instead of silently lowering the load
+    private void runOpen(ExecutorService executor, long deadline) {
+        Semaphore slots = new Semaphore(options.concurrency());
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long next = System.nanoTime();
+
+        while (next < deadline) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduled = next;
+            next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+
+            if (!slots.tryAcquire()) {
+                report.recordDropped();
+                continue;
+            }
+            // Concurrency never exceeds the number of users, so a slot always comes with an idle user
+            VirtualUser user = idleUsers.poll();
+            Scenario scenario = pick();
+            executor.execute(() -> {
+                try {
+                    runScenario(scenario, user, scheduled);
+                } finally {
+                    idleUsers.add(user);
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    // Each session starts its next scenario as soon as the previous one ends
+    private void runClosed(ExecutorService executor, long deadline) {
+        for (int i = 0; i < options.concurrency(); i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    VirtualUser user = idleUsers.poll();
+                    try {
+                        runScenario(pick(), user, System.nanoTime());
+                    } finally {
+                        idleUsers.add(user);
+                    }
+                }
+            });
+        }
+    }
+
+    private void runScenario(Scenario scenario, VirtualUser user, long scheduled) {
+        boolean failed = false;
+        try {
+            scenario.run(client, user, productIds);
+        } catch (LoadClient.StepFailedException e) {
+            failed = true;
+        } catch (RuntimeException e) {
+            failed = true;
+            System.err.println(scenario.label() + " scenario failed: " + e);
+        }
+        report.recordScenario(scenario, System.nanoTime() - scheduled, failed);
+    }
+
+    private Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        throw new IllegalStateException("Weights are cumulative, the last one always matches");
+    }
+}
@@ -0,0 +1,114 @@
+package com.ECommerceAPI.ECommerceAPI.loadtest;
+
+import com.ECommerceAPI.ECommerceAPI.ECommerceApiApplication;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import com.ECommerceAPI.ECommerceAPI.security.CustomUserDetailsService;
+import com.ECommerceAPI.ECommerceAPI.security.JwtUtil;
+import com.ECommerceAPI.ECommerceAPI.service.ProductIndexUpdater;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the API on H2 with the loadtest profile, seeds customers and products, applies a warmup phase and then
+// a measured phase of weighted scenarios over HTTP, and prints throughput and latency percentiles per endpoint
+public final class LoadTest {
+
+    static final String PASSWORD = "loadtest-password";
+
+    // Product names combine these so searches by type return a page of results
+    static final String[] PRODUCT_TYPES = {"Keyboard", "Monitor", "Headphones", "Mouse", "Laptop", "Charger", "Speaker", "Webcam"};
+
+    private static final String[] PRODUCT_QUALIFIERS = {"Wireless", "Compact", "Pro", "Gaming", "Ergonomic", "Portable"};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ECommerceApiApplication.class)
+                .profiles("loadtest")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            long[] productIds = seedProducts(context, options.products());
+            List<VirtualUser> users = seedUsers(context, options.users());
+
+            LatencyReport report = new LatencyReport();
+            LoadClient client = new LoadClient(URI.create("http://localhost:" + port), report);
+            LoadGenerator generator = new LoadGenerator(options, client, report, users, productIds);
+
+            System.out.printf("%s model, %s, concurrency %d, %d users, %d products, mix %s%n",
+                options.rate() > 0 ? "Open" : "Closed",
+                options.rate() > 0 ? options.rate() + " scenarios/s" : "no think time",
+                options.concurrency(), options.users(), options.products(), options.mix());
+
+            System.out.printf("Warming up for %d s%n", options.warmup().toSeconds());
+            generator.run(options.warmup());
+            report.reset();
+
+            System.out.printf("Measuring for %d s%n", options.duration().toSeconds());
+            long start = System.nanoTime();
+            generator.run(options.duration());
+            report.print(System.out, Duration.ofNanos(System.nanoTime() - start));
+        }
+        // The payment executor and HTTP client leave no reason to keep the JVM, but don't wait on stray threads
+        System.exit(0);
+    }
+
+    private static long[] seedProducts(ConfigurableApplicationContext context, int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName(PRODUCT_QUALIFIERS[i % PRODUCT_QUALIFIERS.length] + " "
+                + PRODUCT_TYPES[(i / PRODUCT_QUALIFIERS.length) % PRODUCT_TYPES.length] + " " + i);
+            product.setDescription("Load test product " + i);
+            product.setPrice(BigDecimal.valueOf(499 + (i * 7919L) % 50_000, 2));
+            // Enough stock that checkouts never run the catalog dry during a run
+            product.setStockQuantity(10_000_000);
+            products.add(product);
+        }
+        List<Product> saved = context.getBean(ProductRepository.class).saveAll(products);
+        // Seeded directly rather than through ProductService, so build the search index once at the end
+        context.getBean(ProductIndexUpdater.class).rebuild();
+        return saved.stream().mapToLong(Product::getId).toArray();
+    }
+
+    // All users share one password hash, so seeding doesn't pay for a BCrypt round per user.
+    // Tokens are issued up front; the login scenario measures the real password check
+    private static List<VirtualUser> seedUsers(ConfigurableApplicationContext context, int count) {
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("loadtest-user-" + i);
+            user.setEmail("loadtest-user-" + i + "@example.com");
+            user.setPassword(passwordHash);
+            users.add(user);
+        }
+
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        CustomUserDetailsService userDetailsService = context.getBean(CustomUserDetailsService.class);
+        return context.getBean(UserRepository.class).saveAll(users).stream()
+            .map(user -> new VirtualUser(user.getId(), user.getUsername(),
+                jwtUtil.generateToken(userDetailsService.loadUserByUsername(user.getUsername()))))
+            .toList();
+    }
+}
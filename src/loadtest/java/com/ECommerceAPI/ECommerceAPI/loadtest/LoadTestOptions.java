@@ -0,0 +1,79 @@
+package com.ECommerceAPI.ECommerceAPI.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Command line options, all given as name=value. A rate of 0 switches from an open model (arrivals at a fixed
+// rate, bounded by concurrency) to a closed one (concurrency sessions running back to back)
+record LoadTestOptions(double rate, int concurrency, Duration warmup, Duration duration,
+                       int users, int products, Map<Scenario, Integer> mix) {
+
+    static final String USAGE = """
+        Options (name=value):
+          rate=50                   scenarios started per second; 0 runs a closed model
+          concurrency=32            maximum scenarios in flight
+          warmup=10s                load applied before measuring
+          duration=30s              measured load
+          users=200                 seeded customers; each runs at most one scenario at a time
+          products=1000             seeded products
+          mix=browse:60,cart:20,checkout:15,login:5
+                                    relative weight of each scenario""";
+
+    LoadTestOptions {
+        if (rate < 0) {
+            throw new IllegalArgumentException("rate cannot be negative");
+        }
+        if (concurrency < 1 || users < 1 || products < 1) {
+            throw new IllegalArgumentException("concurrency, users and products must be positive");
+        }
+        if (concurrency > users) {
+            throw new IllegalArgumentException("concurrency cannot exceed users, every scenario needs its own user");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix needs at least one scenario with a positive weight");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+            Double.parseDouble(values.getOrDefault("rate", "50")),
+            Integer.parseInt(values.getOrDefault("concurrency", "32")),
+            DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+            DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+            Integer.parseInt(values.getOrDefault("users", "200")),
+            Integer.parseInt(values.getOrDefault("products", "1000")),
+            parseMix(values.getOrDefault("mix", "browse:60,cart:20,checkout:15,login:5")));
+
+        values.keySet().removeAll(Set.of("rate", "concurrency", "warmup", "duration", "users", "products", "mix"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries are scenario:weight, got: " + entry);
+            }
+            weights.put(Scenario.parse(parts[0]), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
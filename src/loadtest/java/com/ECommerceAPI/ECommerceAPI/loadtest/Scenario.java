@@ -0,0 +1,94 @@
+package com.ECommerceAPI.ECommerceAPI.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One user session. Each step goes through LoadClient, which times it against its endpoint template;
+// a failed step ends the scenario, since later steps depend on what it returned
+enum Scenario {
+
+    // Anonymous catalog reads: a search by product type, then one of the results
+    BROWSE {
+        @Override
+        void run(LoadClient client, VirtualUser user, long[] productIds) {
+            String type = LoadTest.PRODUCT_TYPES[random().nextInt(LoadTest.PRODUCT_TYPES.length)];
+            JsonNode page = client.get("GET /api/products/search", "/api/products/search?name=" + type, null);
+            JsonNode items = page.path("items");
+            long productId = items.isEmpty()
+                ? randomProduct(productIds)
+                : items.get(random().nextInt(items.size())).path("id").asLong();
+            client.get("GET /api/products/{id}", "/api/products/" + productId, null);
+        }
+    },
+
+    // Adds two products, takes one back out and reads the cart; carts that grew large are emptied
+    CART {
+        @Override
+        void run(LoadClient client, VirtualUser user, long[] productIds) {
+            long kept = randomProduct(productIds);
+            long removed = randomProduct(productIds);
+            String cart = "/api/cart/" + user.id();
+            client.post("POST /api/cart/{userId}/add/{productId}", cart + "/add/" + kept + "?quantity=" + (1 + random().nextInt(3)), null, user);
+            client.post("POST /api/cart/{userId}/add/{productId}", cart + "/add/" + removed, null, user);
+            client.delete("DELETE /api/cart/{userId}/remove/{productId}", cart + "/remove/" + removed, user);
+            JsonNode contents = client.get("GET /api/cart/{userId}", cart, user);
+            if (contents.path("items").size() > 10) {
+                client.delete("DELETE /api/cart/{userId}/clear", cart + "/clear", user);
+            }
+        }
+    },
+
+    // Orders two products, pays by card and polls the payment once
+    CHECKOUT {
+        @Override
+        void run(LoadClient client, VirtualUser user, long[] productIds) {
+            long first = randomProduct(productIds);
+            long second = randomProduct(productIds);
+            JsonNode order = client.post("POST /api/orders/{userId}", "/api/orders/" + user.id(),
+                Map.of("productIds", first == second ? new long[] {first} : new long[] {first, second}), user);
+            long orderId = order.path("id").asLong();
+
+            JsonNode payment = client.post("POST /api/payments/order/{orderId}", "/api/payments/order/" + orderId,
+                Map.of("paymentMethod", "CREDIT_CARD"), user);
+            long paymentId = payment.path("id").asLong();
+
+            client.post("POST /api/payments/{paymentId}/process", "/api/payments/" + paymentId + "/process", null, user);
+            client.get("GET /api/payments/{paymentId}/status", "/api/payments/" + paymentId + "/status", user);
+        }
+    },
+
+    // A full password login, which is what a returning customer pays for once per session
+    LOGIN {
+        @Override
+        void run(LoadClient client, VirtualUser user, long[] productIds) {
+            JsonNode response = client.post("POST /api/auth/login", "/api/auth/login",
+                Map.of("username", user.username(), "password", LoadTest.PASSWORD), null);
+            user.token(response.path("jwt").asText());
+        }
+    };
+
+    abstract void run(LoadClient client, VirtualUser user, long[] productIds);
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Scenario parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown scenario: " + name);
+        }
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private static long randomProduct(long[] productIds) {
+        return productIds[random().nextInt(productIds.length)];
+    }
+}
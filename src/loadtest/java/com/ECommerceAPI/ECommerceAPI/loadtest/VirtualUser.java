@@ -0,0 +1,31 @@
+package com.ECommerceAPI.ECommerceAPI.loadtest;
+
+// A seeded customer. The token starts out pre-issued and is replaced whenever the login scenario runs for the user
+final class VirtualUser {
+
+    private final long id;
+    private final String username;
+    private volatile String token;
+
+    VirtualUser(long id, String username, String token) {
+        this.id = id;
+        this.username = username;
+        this.token = token;
+    }
+
+    long id() {
+        return id;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String token() {
+        return token;
+    }
+
+    void token(String token) {
+        this.token = token;
+    }
+}
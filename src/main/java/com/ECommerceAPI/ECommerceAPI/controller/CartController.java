@@ -1,14 +1,22 @@
 package com.ECommerceAPI.ECommerceAPI.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
 import com.ECommerceAPI.ECommerceAPI.service.CartService;
+import com.ECommerceAPI.ECommerceAPI.service.CheckoutService;
+import com.ECommerceAPI.ECommerceAPI.service.CheckoutService.CheckoutResult;
+import com.ECommerceAPI.ECommerceAPI.service.InsufficientStockException;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/cart")
@@ -17,6 +25,13 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private CheckoutService checkoutService;
+
+    private static final int MAX_CART_UPDATE_ATTEMPTS = 3;
+
+    public record CheckoutRequest(String paymentMethod) {}
+
     @GetMapping("/{userId}")
     public ResponseEntity<Cart> getCart(@PathVariable Long userId) {
         Optional<Cart> cart = cartService.getCartByUserId(userId);
@@ -25,20 +40,30 @@ public class CartController {
     }
 
     @PostMapping("/{userId}/add/{productId}")
-    public ResponseEntity<Cart> addProductToCart(@PathVariable Long userId, @PathVariable Long productId) {
+    public ResponseEntity<Cart> addProductToCart(@PathVariable Long userId, @PathVariable Long productId,
+                                                 @RequestParam(defaultValue = "1") Integer quantity) {
         try {
-            Cart cart = cartService.addProductToCart(userId, productId);
+            Cart cart = retryOnConflict(() -> cartService.addProductToCart(userId, productId, quantity));
             return ResponseEntity.ok(cart);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @DeleteMapping("/{userId}/remove/{productId}")
-    public ResponseEntity<Cart> removeProductFromCart(@PathVariable Long userId, @PathVariable Long productId) {
+    public ResponseEntity<Cart> removeProductFromCart(@PathVariable Long userId, @PathVariable Long productId,
+                                                      @RequestParam(required = false) Integer quantity) {
         try {
-            Cart cart = cartService.removeProductFromCart(userId, productId);
+            Cart cart = retryOnConflict(() -> cartService.removeProductFromCart(userId, productId, quantity));
             return ResponseEntity.ok(cart);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -57,4 +82,52 @@ public class CartController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @PostMapping("/{userId}/checkout")
+    public ResponseEntity<?> checkout(@PathVariable Long userId, @RequestBody(required = false) CheckoutRequest request,
+                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            PaymentMethod paymentMethod = request == null || request.paymentMethod() == null
+                ? null
+                : PaymentMethod.valueOf(request.paymentMethod().toUpperCase());
+            return ResponseEntity.ok(hidePassword(checkoutService.checkout(userId, paymentMethod, idempotencyKey)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage(), "shortages", e.getShortages()));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent checkout with the same key committed first; answer with its result
+            if (idempotencyKey != null) {
+                Optional<CheckoutResult> existing = checkoutService.findCheckout(userId, idempotencyKey);
+                if (existing.isPresent()) {
+                    return ResponseEntity.ok(hidePassword(existing.get()));
+                }
+            }
+            return ResponseEntity.internalServerError().body(Map.of("error", "Checkout failed"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Concurrent changes to one cart fail on its version, and two first adds of the same product (or two first
+    // carts for a user) on a unique constraint. Each attempt is its own transaction, so a retry sees the winner's rows
+    private Cart retryOnConflict(Supplier<Cart> update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return update.get();
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_CART_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private CheckoutResult hidePassword(CheckoutResult result) {
+        if (result.order().getUser() != null) {
+            result.order().getUser().setPassword(null); // Hide password in response
+        }
+        return result;
+    }
 }
@@ -6,6 +6,9 @@ import org.springframework.web.bind.annotation.*;
 
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.service.InventoryService;
+import com.ECommerceAPI.ECommerceAPI.service.InventoryService.AdjustmentStatus;
+import com.ECommerceAPI.ECommerceAPI.service.InventoryService.StockAdjustment;
+import com.ECommerceAPI.ECommerceAPI.service.InventoryService.StockAdjustmentResult;
 
 import java.util.List;
 import java.util.Map;
@@ -17,6 +20,8 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    public record BulkStockRequest(List<StockAdjustment> adjustments) {}
+
     @PostMapping("/{productId}/add-stock")
     public ResponseEntity<Product> addStock(@PathVariable Long productId, @RequestBody Map<String, Integer> request) {
         try {
@@ -59,6 +64,24 @@ public class InventoryController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulkAdjustStock(@RequestBody BulkStockRequest request) {
+        try {
+            List<StockAdjustmentResult> results = inventoryService.bulkAdjustStock(request.adjustments());
+            long updated = results.stream()
+                .filter(result -> result.status() == AdjustmentStatus.UPDATED)
+                .count();
+            Map<String, Object> response = Map.of(
+                "updated", updated,
+                "failed", results.size() - updated,
+                "results", results
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{productId}/min-stock")
     public ResponseEntity<Product> setMinStockLevel(@PathVariable Long productId, @RequestBody Map<String, Integer> request) {
         try {
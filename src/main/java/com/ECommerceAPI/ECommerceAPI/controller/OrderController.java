@@ -1,13 +1,24 @@
 package com.ECommerceAPI.ECommerceAPI.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ECommerceAPI.ECommerceAPI.model.CursorPage;
 import com.ECommerceAPI.ECommerceAPI.model.Order;
 import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
+import com.ECommerceAPI.ECommerceAPI.service.ExportFormat;
+import com.ECommerceAPI.ECommerceAPI.service.ExportRange;
+import com.ECommerceAPI.ECommerceAPI.service.InsufficientStockException;
 import com.ECommerceAPI.ECommerceAPI.service.OrderService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,12 +34,25 @@ public class OrderController {
     public record OrderRequest(Set<Long> productIds) {}
 
     @PostMapping("/{userId}")
-    public ResponseEntity<?> createOrder(@PathVariable Long userId, @RequestBody OrderRequest request) {
+    public ResponseEntity<?> createOrder(@PathVariable Long userId, @RequestBody OrderRequest request,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            Order newOrder = orderService.createOrder(userId, request.productIds());
+            Order newOrder = orderService.createOrder(userId, request.productIds(), idempotencyKey);
             return ResponseEntity.ok(newOrder);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage(), "shortages", e.getShortages()));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key inserted first; answer with the order it created
+            if (idempotencyKey != null) {
+                Optional<Order> existing = orderService.findByIdempotencyKey(userId, idempotencyKey);
+                if (existing.isPresent()) {
+                    return ResponseEntity.ok(existing.get());
+                }
+            }
+            return ResponseEntity.internalServerError().body(Map.of("error", "Order creation failed"));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -91,12 +115,14 @@ public class OrderController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status) {
+    public ResponseEntity<CursorPage<Order>> getOrdersByStatus(@PathVariable String status,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
         try {
             OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            List<Order> orders = orderService.getOrdersByStatus(orderStatus);
+            CursorPage<Order> orders = orderService.getOrdersByStatus(orderStatus, cursor, size);
             
-            orders.forEach(order -> {
+            orders.items().forEach(order -> {
                 if (order.getUser() != null) {
                     order.getUser().setPassword(null); // Hide password in response
                 }
@@ -107,4 +133,25 @@ public class OrderController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    // Streamed as it is read; see ExportWriter
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            ExportRange range = new ExportRange(from, to);
+            OrderStatus orderStatus = status == null ? null : OrderStatus.valueOf(status.toUpperCase());
+            ExportFormat exportFormat = ExportFormat.parse(format);
+            StreamingResponseBody body = out -> orderService.exportOrders(range, orderStatus, exportFormat, out);
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
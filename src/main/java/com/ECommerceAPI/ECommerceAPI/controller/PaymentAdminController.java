@@ -0,0 +1,54 @@
+package com.ECommerceAPI.ECommerceAPI.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGatewayClient;
+import com.ECommerceAPI.ECommerceAPI.service.PaymentProcessor;
+import com.ECommerceAPI.ECommerceAPI.service.PaymentReconciler;
+import com.ECommerceAPI.ECommerceAPI.service.PaymentReconciler.ReconciliationRun;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/payments")
+public class PaymentAdminController {
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    // Absent when payment.reconciliation.enabled=false
+    @Autowired(required = false)
+    private PaymentReconciler paymentReconciler;
+
+    @GetMapping("/gateway")
+    public ResponseEntity<Map<String, Object>> getGatewayStats() {
+        return ResponseEntity.ok(Map.of(
+            "inFlight", paymentProcessor.inFlight(),
+            "gateway", paymentGatewayClient.getStats()
+        ));
+    }
+
+    @GetMapping("/reconciliation")
+    public ResponseEntity<Map<String, Object>> getReconciliationStats() {
+        if (paymentReconciler == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of(
+            "backlog", paymentReconciler.getBacklog(),
+            "reconciliation", paymentReconciler.getStats()
+        ));
+    }
+
+    @PostMapping("/reconciliation/run")
+    public ResponseEntity<ReconciliationRun> runReconciliation() {
+        if (paymentReconciler == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(paymentReconciler.reconcile());
+    }
+}
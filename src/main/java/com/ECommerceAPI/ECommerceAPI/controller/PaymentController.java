@@ -1,17 +1,28 @@
 package com.ECommerceAPI.ECommerceAPI.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ECommerceAPI.ECommerceAPI.model.Payment;
 import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
 import com.ECommerceAPI.ECommerceAPI.model.PaymentStatus;
+import com.ECommerceAPI.ECommerceAPI.service.ExportFormat;
+import com.ECommerceAPI.ECommerceAPI.service.ExportRange;
 import com.ECommerceAPI.ECommerceAPI.service.PaymentService;
+import com.ECommerceAPI.ECommerceAPI.service.PaymentService.PaymentStatusView;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -38,16 +49,28 @@ public class PaymentController {
         }
     }
 
+    // Accepted for processing; the outcome is polled from the status endpoint named in Location
     @PostMapping("/{paymentId}/process")
     public ResponseEntity<Payment> processPayment(@PathVariable Long paymentId) {
         try {
             Payment payment = paymentService.processPayment(paymentId);
-            return ResponseEntity.ok(payment);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/payments/" + paymentId + "/status"))
+                .body(payment);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping("/{paymentId}/status")
+    public ResponseEntity<PaymentStatusView> getPaymentStatus(@PathVariable Long paymentId) {
+        Optional<PaymentStatusView> status = paymentService.getPaymentStatus(paymentId);
+        return status.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{paymentId}/refund")
     public ResponseEntity<Payment> refundPayment(@PathVariable Long paymentId, @RequestBody Map<String, String> request) {
         try {
@@ -90,4 +113,25 @@ public class PaymentController {
         return payment.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    // Streamed as it is read; see ExportWriter
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            ExportRange range = new ExportRange(from, to);
+            PaymentStatus paymentStatus = status == null ? null : PaymentStatus.valueOf(status.toUpperCase());
+            ExportFormat exportFormat = ExportFormat.parse(format);
+            StreamingResponseBody body = out -> paymentService.exportPayments(range, paymentStatus, exportFormat, out);
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + exportFormat.getExtension() + "\"")
+                .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -2,13 +2,14 @@ package com.ECommerceAPI.ECommerceAPI.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import com.ECommerceAPI.ECommerceAPI.model.CursorPage;
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.service.ProductService;
 
 import org.springframework.http.ResponseEntity;
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
@@ -17,8 +18,10 @@ public class ProductController {
     private ProductService productService;
 
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.getAllProducts(cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -54,43 +57,79 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public List<Product> searchProducts(@RequestParam(required = false) String name) {
-        return productService.searchProducts(name);
+    public ResponseEntity<?> searchProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.searchProducts(name, cursor, size));
     }
 
     @GetMapping("/filter/price")
-    public List<Product> filterProductsByPrice(
+    public ResponseEntity<?> filterProductsByPrice(
             @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice) {
-        return productService.filterProductsByPrice(minPrice, maxPrice);
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.filterProductsByPrice(minPrice, maxPrice, cursor, size));
     }
 
     @GetMapping("/available")
-    public List<Product> getAvailableProducts() {
-        return productService.getAvailableProducts();
+    public ResponseEntity<?> getAvailableProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.getAvailableProducts(cursor, size));
     }
 
     @GetMapping("/unavailable")
-    public List<Product> getUnavailableProducts() {
-        return productService.getUnavailableProducts();
+    public ResponseEntity<?> getUnavailableProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.getUnavailableProducts(cursor, size));
     }
 
     @GetMapping("/in-stock")
-    public List<Product> getProductsInStock() {
-        return productService.getProductsInStock();
+    public ResponseEntity<?> getProductsInStock(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.getProductsInStock(cursor, size));
     }
 
     @GetMapping("/out-of-stock")
-    public List<Product> getOutOfStockProducts() {
-        return productService.getOutOfStockProducts();
+    public ResponseEntity<?> getOutOfStockProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.getOutOfStockProducts(cursor, size));
     }
 
     @GetMapping("/search-filter")
-    public List<Product> searchAndFilterProducts(
+    public ResponseEntity<?> searchAndFilterProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return page(() -> productService.searchAndFilterProducts(name, minPrice, maxPrice, available, cursor, size));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Boolean available) {
-        return productService.searchAndFilterProducts(name, minPrice, maxPrice, available);
+        try {
+            return ResponseEntity.ok(productService.getFacets(name, minPrice, maxPrice, available));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> page(Supplier<CursorPage<Product>> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 }
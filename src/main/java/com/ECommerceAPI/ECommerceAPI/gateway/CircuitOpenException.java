@@ -0,0 +1,11 @@
+package com.ECommerceAPI.ECommerceAPI.gateway;
+
+// The circuit breaker turned the call away before it was sent, so the gateway cannot have acted on it
+public class CircuitOpenException extends PaymentGatewayException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException() {
+        super("Payment gateway circuit is open", false);
+    }
+}
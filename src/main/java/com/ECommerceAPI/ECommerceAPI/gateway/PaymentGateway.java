@@ -0,0 +1,21 @@
+package com.ECommerceAPI.ECommerceAPI.gateway;
+
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+// Charges a payment with an external provider. Implementations may block; callers apply timeouts.
+// The transaction id doubles as the provider's idempotency key, so a retried charge is never taken twice.
+public interface PaymentGateway {
+
+    record ChargeRequest(String transactionId, BigDecimal amount, PaymentMethod paymentMethod) {}
+
+    record ChargeResult(boolean approved, String message) {}
+
+    // Returns the provider's decision; throws PaymentGatewayException if no decision was obtained
+    ChargeResult charge(ChargeRequest request);
+
+    // The decision previously taken for a transaction, or empty if the gateway never received it
+    Optional<ChargeResult> lookup(String transactionId);
+}
@@ -0,0 +1,147 @@
+package com.ECommerceAPI.ECommerceAPI.gateway;
+
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeRequest;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Calls the configured PaymentGateway with a per-attempt timeout, retries retryable failures with
+// jittered exponential backoff, and stops calling altogether while the circuit breaker is open.
+// Charges and lookups share the same policy and circuit.
+// A decline is a healthy answer from the gateway and is neither retried nor counted as a failure.
+@Component
+public class PaymentGatewayClient {
+
+    public record GatewayStats(long calls, long approved, long declined, long failed, long timeouts,
+                               long retries, long rejected, CircuitBreaker.State circuitState) {}
+
+    private final PaymentGateway gateway;
+    private final Duration timeout;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder approved = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public PaymentGatewayClient(PaymentGateway gateway,
+                                @Value("${payment.gateway.timeout:2s}") Duration timeout,
+                                @Value("${payment.gateway.retry.max-attempts:3}") int maxAttempts,
+                                @Value("${payment.gateway.retry.initial-backoff:100ms}") Duration initialBackoff,
+                                @Value("${payment.gateway.retry.max-backoff:2s}") Duration maxBackoff,
+                                @Value("${payment.gateway.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                @Value("${payment.gateway.circuit-breaker.open-duration:10s}") Duration openDuration) {
+        this.gateway = gateway;
+        this.timeout = timeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+    }
+
+    public ChargeResult charge(ChargeRequest request) {
+        calls.increment();
+        ChargeResult result = call(() -> gateway.charge(request));
+        (result.approved() ? approved : declined).increment();
+        return result;
+    }
+
+    public Optional<ChargeResult> lookup(String transactionId) {
+        calls.increment();
+        return call(() -> gateway.lookup(transactionId));
+    }
+
+    // Lets callers turn work away up front instead of accepting it while every call would be rejected
+    public boolean isAvailable() {
+        return !circuitBreaker.isOpen();
+    }
+
+    public GatewayStats getStats() {
+        return new GatewayStats(calls.sum(), approved.sum(), declined.sum(), failed.sum(), timeouts.sum(),
+            retries.sum(), rejected.sum(), circuitBreaker.getState());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T call(Callable<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                rejected.increment();
+                failed.increment();
+                // Earlier attempts may have reached the gateway, so only a first attempt counts as never sent
+                if (attempt == 1) {
+                    throw new CircuitOpenException();
+                }
+                throw new PaymentGatewayException("Payment gateway circuit opened after " + (attempt - 1) + " attempt(s)", false);
+            }
+            try {
+                T result = attempt(operation);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (PaymentGatewayException e) {
+                circuitBreaker.onFailure();
+                if (!e.isRetryable() || attempt >= maxAttempts) {
+                    failed.increment();
+                    throw e;
+                }
+            }
+            retries.increment();
+            backoff(attempt);
+        }
+    }
+
+    private <T> T attempt(Callable<T> operation) {
+        Future<T> future = executor.submit(operation);
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            throw new PaymentGatewayException("Payment gateway timed out after " + timeout.toMillis() + " ms", e, true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PaymentGatewayException gatewayException) {
+                throw gatewayException;
+            }
+            throw new PaymentGatewayException("Payment gateway call failed", e.getCause(), true);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Payment gateway call interrupted", e, false);
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        // Full jitter keeps retries from many payments from arriving at the gateway in lockstep
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Payment gateway retry interrupted", e, false);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ECommerceAPI.ECommerceAPI.gateway;
+
+// The gateway gave no decision. Retryable failures (errors, timeouts) may succeed on another attempt;
+// the rest, such as an open circuit, should be reported without retrying. Unless it is a CircuitOpenException
+// the request may still have reached the gateway, so its outcome is unknown rather than a failure.
+public class PaymentGatewayException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    public PaymentGatewayException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public PaymentGatewayException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
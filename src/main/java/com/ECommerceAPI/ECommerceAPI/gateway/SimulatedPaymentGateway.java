@@ -0,0 +1,98 @@
+package com.ECommerceAPI.ECommerceAPI.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Local stand-in for a real provider, for development and load testing. Latency follows a log-normal
+// distribution around the configured median; declines, transient errors and hangs are injected at the
+// configured rates, and an optional outage window makes every call fail for a while at a fixed interval.
+@Component
+@ConditionalOnProperty(name = "payment.gateway.type", havingValue = "simulator", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final Duration latencyMedian;
+    private final double latencySigma;
+    private final double declineRate;
+    private final double errorRate;
+    private final double hangRate;
+    private final Duration hangDuration;
+    private final Duration burstInterval;
+    private final Duration burstDuration;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    // Decisions are remembered so lookups can answer like a real provider would
+    private final Cache<String, ChargeResult> decisions = Caffeine.newBuilder()
+        .maximumSize(100_000)
+        .expireAfterWrite(Duration.ofDays(1))
+        .build();
+
+    public SimulatedPaymentGateway(@Value("${payment.gateway.simulator.latency-median:80ms}") Duration latencyMedian,
+                                   @Value("${payment.gateway.simulator.latency-sigma:0.6}") double latencySigma,
+                                   @Value("${payment.gateway.simulator.decline-rate:0.1}") double declineRate,
+                                   @Value("${payment.gateway.simulator.error-rate:0.0}") double errorRate,
+                                   @Value("${payment.gateway.simulator.hang-rate:0.0}") double hangRate,
+                                   @Value("${payment.gateway.simulator.hang-duration:30s}") Duration hangDuration,
+                                   @Value("${payment.gateway.simulator.burst-interval:0s}") Duration burstInterval,
+                                   @Value("${payment.gateway.simulator.burst-duration:0s}") Duration burstDuration) {
+        this.latencyMedian = latencyMedian;
+        this.latencySigma = latencySigma;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+        this.hangDuration = hangDuration;
+        this.burstInterval = burstInterval;
+        this.burstDuration = burstDuration;
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        simulateCall();
+        // A retried transaction id gets the original decision instead of a second charge
+        return decisions.get(request.transactionId(), transactionId -> ThreadLocalRandom.current().nextDouble() < declineRate
+            ? new ChargeResult(false, "Payment gateway declined the transaction")
+            : new ChargeResult(true, "Payment processed successfully"));
+    }
+
+    @Override
+    public Optional<ChargeResult> lookup(String transactionId) {
+        simulateCall();
+        return Optional.ofNullable(decisions.getIfPresent(transactionId));
+    }
+
+    private void simulateCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < hangRate) {
+            sleep(hangDuration.toMillis());
+        }
+        sleep(Math.round(latencyMedian.toMillis() * Math.exp(latencySigma * random.nextGaussian())));
+
+        if (inBurst() || random.nextDouble() < errorRate) {
+            throw new PaymentGatewayException("Simulated gateway error", true);
+        }
+    }
+
+    private boolean inBurst() {
+        if (burstInterval.isZero() || burstDuration.isZero()) {
+            return false;
+        }
+        // The outage closes each interval, so a freshly started gateway is healthy at first
+        long elapsed = System.currentTimeMillis() - startedAtMillis;
+        return elapsed % burstInterval.toMillis() >= burstInterval.toMillis() - burstDuration.toMillis();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Gateway call interrupted", e, true);
+        }
+    }
+}
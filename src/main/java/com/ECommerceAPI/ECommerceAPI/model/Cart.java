@@ -1,10 +1,12 @@
 package com.ECommerceAPI.ECommerceAPI.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.Hibernate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "carts")
@@ -18,13 +20,9 @@ public class Cart {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(
-        name = "cart_products",
-        joinColumns = @JoinColumn(name = "cart_id"),
-        inverseJoinColumns = @JoinColumn(name = "product_id")
-    )
-    private Set<Product> products = new HashSet<>();
+    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    private List<CartItem> items = new ArrayList<>();
 
     @Column(nullable = false)
     private BigDecimal totalAmount;
@@ -32,6 +30,13 @@ public class Cart {
     @Column(nullable = false)
     private LocalDateTime lastUpdated;
 
+    // Every item change also moves the total, so concurrent changes to one cart conflict here instead of
+    // the last writer's total silently replacing the other's
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Cart() {
         this.totalAmount = BigDecimal.ZERO;
         this.lastUpdated = LocalDateTime.now();
@@ -53,12 +58,12 @@ public class Cart {
         this.user = user;
     }
 
-    public Set<Product> getProducts() {
-        return products;
+    public List<CartItem> getItems() {
+        return items;
     }
 
-    public void setProducts(Set<Product> products) {
-        this.products = products;
+    public void setItems(List<CartItem> items) {
+        this.items = items;
         this.lastUpdated = LocalDateTime.now();
         calculateTotal();
     }
@@ -79,32 +84,47 @@ public class Cart {
         this.lastUpdated = lastUpdated;
     }
 
-    public void addProduct(Product product) {
-        this.products.add(product);
-        this.lastUpdated = LocalDateTime.now();
-        calculateTotal();
+    // Item changes adjust the total by the changed amount instead of re-summing every line,
+    // and only touch the item collection if it has already been loaded
+    public void itemAdded(CartItem item, int quantity) {
+        if (Hibernate.isInitialized(items) && !items.contains(item)) {
+            items.add(item);
+        }
+        adjustTotal(item.priceOf(quantity));
     }
 
-    public void removeProduct(Product product) {
-        this.products.remove(product);
-        this.lastUpdated = LocalDateTime.now();
-        calculateTotal();
+    public void itemReduced(CartItem item, int quantity) {
+        adjustTotal(item.priceOf(quantity).negate());
+    }
+
+    public void itemRemoved(CartItem item) {
+        if (Hibernate.isInitialized(items)) {
+            items.remove(item);
+        }
+        adjustTotal(item.getLineTotal().negate());
     }
 
     public void clearCart() {
-        this.products.clear();
+        if (Hibernate.isInitialized(items)) {
+            this.items.clear();
+        }
         this.totalAmount = BigDecimal.ZERO;
         this.lastUpdated = LocalDateTime.now();
     }
 
-    private void calculateTotal() {
-        if (products == null) {
+    public void calculateTotal() {
+        if (items == null) {
             this.totalAmount = BigDecimal.ZERO;
             return;
         }
-        this.totalAmount = products.stream()
-            .filter(product -> product != null && product.getPrice() != null)
-            .map(Product::getPrice)
+        this.totalAmount = items.stream()
+            .filter(item -> item != null && item.getUnitPrice() != null)
+            .map(CartItem::getLineTotal)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
+
+    private void adjustTotal(BigDecimal amount) {
+        this.totalAmount = this.totalAmount.add(amount);
+        this.lastUpdated = LocalDateTime.now();
+    }
 }
@@ -1,31 +1,48 @@
 package com.ECommerceAPI.ECommerceAPI.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_status_order_date", columnList = "status, orderDate"),
+    @Index(name = "idx_orders_user_order_date", columnList = "user_id, orderDate"),
+    // The export scans an orderDate range sorted by (orderDate, id), so it can stream without a sort
+    @Index(name = "idx_orders_order_date_id", columnList = "orderDate, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_orders_user_idempotency_key", columnNames = {"user_id", "idempotencyKey"})
+})
 public class Order {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(
-        name = "order_products",
+    // Lazy by default; listing queries fetch it with an entity graph and other paths load it in batches.
+    // Items are written once when the order is created, so a nonstrict cache is safe
+    @ElementCollection
+    @CollectionTable(
+        name = "order_items",
         joinColumns = @JoinColumn(name = "order_id"),
-        inverseJoinColumns = @JoinColumn(name = "product_id")
+        indexes = @Index(name = "idx_order_items_order", columnList = "order_id")
     )
-    private Set<Product> products = new HashSet<>();
+    @OrderBy("productId")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "order-items")
+    private List<OrderItem> items = new ArrayList<>();
 
+    // Sum of the item line totals, stored so listings never need to add up the items
     @Column(nullable = false)
     private BigDecimal totalAmount;
 
@@ -42,6 +59,10 @@ public class Order {
     @Column
     private LocalDateTime statusUpdatedAt;
 
+    @JsonIgnore
+    @Column(length = 100)
+    private String idempotencyKey;
+
     public Long getId() {
         return id;
     }
@@ -58,12 +79,18 @@ public class Order {
         this.user = user;
     }
 
-    public Set<Product> getProducts() {
-        return products;
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public void addItem(Product product, int quantity) {
+        addItem(product, quantity, product.getPrice());
     }
 
-    public void setProducts(Set<Product> products) {
-        this.products = products;
+    public void addItem(Product product, int quantity, BigDecimal unitPrice) {
+        OrderItem item = new OrderItem(product, quantity, unitPrice);
+        items.add(item);
+        totalAmount = (totalAmount == null ? BigDecimal.ZERO : totalAmount).add(item.getLineTotal());
     }
 
     public BigDecimal getTotalAmount() {
@@ -107,4 +134,12 @@ public class Order {
         this.statusUpdatedAt = statusUpdatedAt;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
 }
@@ -0,0 +1,57 @@
+package com.ECommerceAPI.ECommerceAPI.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+// A snapshot of one ordered product, written once with its order. The product is referenced by id only,
+// so reading order history never touches the catalog and later product edits don't rewrite past orders.
+// Items are values of their order rather than entities: with no generated id, inserts go out in JDBC batches.
+@Embeddable
+public class OrderItem {
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private String productName;
+
+    @Column(nullable = false)
+    private BigDecimal unitPrice;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    public OrderItem() {
+    }
+
+    public OrderItem(Product product, int quantity) {
+        this(product, quantity, product.getPrice());
+    }
+
+    public OrderItem(Product product, int quantity, BigDecimal unitPrice) {
+        this.productId = product.getId();
+        this.productName = product.getName();
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getLineTotal() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
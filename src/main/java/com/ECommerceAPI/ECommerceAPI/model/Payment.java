@@ -5,7 +5,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_status_updated", columnList = "status, statusUpdatedAt"),
+    // Matches the export query: paymentDate range, then (paymentDate, id) keyset order
+    @Index(name = "idx_payments_payment_date_id", columnList = "paymentDate, id")
+})
 public class Payment {
 
     @Id
@@ -42,8 +46,13 @@ public class Payment {
     @Column
     private String failureReason;
 
+    // When the status last changed; reconciliation uses it to find payments stuck in PROCESSING
+    @Column
+    private LocalDateTime statusUpdatedAt;
+
     public Payment() {
         this.paymentDate = LocalDateTime.now();
+        this.statusUpdatedAt = this.paymentDate;
     }
 
     public Long getId() {
@@ -76,6 +85,7 @@ public class Payment {
 
     public void setStatus(PaymentStatus status) {
         this.status = status;
+        this.statusUpdatedAt = LocalDateTime.now();
         if (status == PaymentStatus.COMPLETED || status == PaymentStatus.FAILED) {
             this.processedAt = LocalDateTime.now();
         }
@@ -128,4 +138,12 @@ public class Payment {
     public void setFailureReason(String failureReason) {
         this.failureReason = failureReason;
     }
+
+    public LocalDateTime getStatusUpdatedAt() {
+        return statusUpdatedAt;
+    }
+
+    public void setStatusUpdatedAt(LocalDateTime statusUpdatedAt) {
+        this.statusUpdatedAt = statusUpdatedAt;
+    }
 }
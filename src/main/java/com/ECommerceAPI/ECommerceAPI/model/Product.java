@@ -1,13 +1,26 @@
 package com.ECommerceAPI.ECommerceAPI.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_product_stock_quantity", columnList = "stockQuantity, minStockLevel"),
+    @Index(name = "idx_product_is_available", columnList = "isAvailable"),
+    @Index(name = "idx_product_price", columnList = "price")
+})
+// Stock changes on hot rows need strict consistency; the native stock UPDATEs lock only the rows they change
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Product {
 
     @Id
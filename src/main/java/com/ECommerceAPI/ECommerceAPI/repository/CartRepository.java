@@ -1,15 +1,23 @@
 package com.ECommerceAPI.ECommerceAPI.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import com.ECommerceAPI.ECommerceAPI.model.Cart;
 import com.ECommerceAPI.ECommerceAPI.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUser(User user);
+
+    @EntityGraph(attributePaths = {"items", "items.product"})
     Optional<Cart> findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = {"items"})
+    List<Cart> findByUserIdIn(Collection<Long> userIds);
 }
@@ -1,14 +1,75 @@
 package com.ECommerceAPI.ECommerceAPI.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
 import com.ECommerceAPI.ECommerceAPI.model.User;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>{
+
+    record OrderExportRow(Long id, Long userId, OrderStatus status, BigDecimal totalAmount, LocalDateTime orderDate,
+                          LocalDateTime statusUpdatedAt, String trackingNumber) {}
+
+    // Order listings load their user and items in the same statement instead of one query per order
+    @EntityGraph(attributePaths = {"user", "items"})
     List<Order> findByUser(User user);
+
+    // Order history walks idx_orders_user_order_date; items are the order's own rows, so no catalog join
+    @EntityGraph(attributePaths = {"user", "items"})
+    List<Order> findByUserIdOrderByOrderDateDescIdDesc(Long userId);
+
+    @EntityGraph(attributePaths = {"user", "items"})
+    List<Order> findByStatus(OrderStatus status);
+
+    // Status pages walk idx_orders_status_order_date newest first. Items are left to batch fetching
+    // because fetch-joining a collection would force Hibernate to apply the limit in memory.
+    @EntityGraph(attributePaths = {"user"})
+    List<Order> findByStatusOrderByOrderDateDescIdDesc(OrderStatus status, Limit limit);
+
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND " +
+           "(o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findByStatusBefore(
+        @Param("status") OrderStatus status,
+        @Param("orderDate") LocalDateTime orderDate,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    @EntityGraph(attributePaths = {"user", "items"})
+    Optional<Order> findWithDetailsById(Long id);
+
+    @EntityGraph(attributePaths = {"user", "items"})
+    Optional<Order> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    // Forward-only export cursor: DTO rows keep the persistence context empty and the fetch size bounds
+    // how many rows the driver buffers. Must be consumed inside a transaction and closed.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ECommerceAPI.ECommerceAPI.repository.OrderRepository$OrderExportRow(" +
+           "o.id, o.user.id, o.status, o.totalAmount, o.orderDate, o.statusUpdatedAt, o.trackingNumber) " +
+           "FROM Order o WHERE (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate < :to) " +
+           "AND (:status IS NULL OR o.status = :status) ORDER BY o.orderDate, o.id")
+    Stream<OrderExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                           @Param("status") OrderStatus status);
 }
@@ -1,17 +1,65 @@
 package com.ECommerceAPI.ECommerceAPI.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ECommerceAPI.ECommerceAPI.model.Payment;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
 import com.ECommerceAPI.ECommerceAPI.model.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    record PaymentReference(Long id, String transactionId) {}
+
+    record PaymentExportRow(Long id, Long orderId, PaymentStatus status, PaymentMethod paymentMethod, BigDecimal amount,
+                            String transactionId, LocalDateTime paymentDate, LocalDateTime processedAt,
+                            String failureReason) {}
+
     Optional<Payment> findByOrderId(Long orderId);
     List<Payment> findByStatus(PaymentStatus status);
     Optional<Payment> findByTransactionId(String transactionId);
+
+    // Moves a payment between states only if it is still in the expected one, so exactly one caller wins
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to, p.statusUpdatedAt = :now WHERE p.id = :id AND p.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") PaymentStatus from, @Param("to") PaymentStatus to,
+                         @Param("now") LocalDateTime now);
+
+    // Keyset page of payments that have sat in a status since before the cutoff; rows written before
+    // statusUpdatedAt existed fall back to their payment date
+    @Query("SELECT new com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository$PaymentReference(p.id, p.transactionId) " +
+           "FROM Payment p WHERE p.status = :status AND p.id > :afterId " +
+           "AND (p.statusUpdatedAt < :before OR (p.statusUpdatedAt IS NULL AND p.paymentDate < :before)) ORDER BY p.id")
+    List<PaymentReference> findStale(@Param("status") PaymentStatus status, @Param("before") LocalDateTime before,
+                                     @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT COUNT(p) FROM Payment p WHERE p.status = :status " +
+           "AND (p.statusUpdatedAt < :before OR (p.statusUpdatedAt IS NULL AND p.paymentDate < :before))")
+    long countStale(@Param("status") PaymentStatus status, @Param("before") LocalDateTime before);
+
+    // Forward-only export cursor; see OrderRepository.streamForExport
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository$PaymentExportRow(" +
+           "p.id, p.order.id, p.status, p.paymentMethod, p.amount, p.transactionId, p.paymentDate, p.processedAt, " +
+           "p.failureReason) FROM Payment p WHERE (:from IS NULL OR p.paymentDate >= :from) " +
+           "AND (:to IS NULL OR p.paymentDate < :to) AND (:status IS NULL OR p.status = :status) ORDER BY p.paymentDate, p.id")
+    Stream<PaymentExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                             @Param("status") PaymentStatus status);
 }
@@ -1,33 +1,37 @@
 package com.ECommerceAPI.ECommerceAPI.repository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ECommerceAPI.ECommerceAPI.model.Product;
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Name matching goes through ProductSearchIndex; these queries only apply the column filters
     @Query("SELECT p FROM Product p WHERE " +
-           "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
            "(:available IS NULL OR p.isAvailable = :available)")
     List<Product> findProductsWithFilters(
-        @Param("name") String name,
         @Param("minPrice") BigDecimal minPrice,
         @Param("maxPrice") BigDecimal maxPrice,
         @Param("available") Boolean available
     );
 
-    List<Product> findByNameContainingIgnoreCase(String name);
-    
-    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
-    
     List<Product> findByIsAvailableTrue();
     
     List<Product> findByIsAvailableFalse();
@@ -35,4 +39,70 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByStockQuantityGreaterThan(Integer quantity);
     
     List<Product> findByStockQuantityLessThanEqual(Integer quantity);
+
+    @Query("SELECT p FROM Product p WHERE p.stockQuantity <= p.minStockLevel")
+    List<Product> findLowStockProducts();
+
+    // Row locks are held until the transaction ends, so no conditional stock UPDATE can commit between this
+    // read and the flush of the changed quantities. Ordered by id so concurrent callers lock in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // The stock UPDATEs below are native and synchronized on this query space rather than the product table.
+    // A bulk JPQL UPDATE (or a native one on the product table) makes Hibernate drop the whole product region
+    // of the second-level cache; instead callers soft-lock just the updated rows. No product query is query-cached,
+    // so nothing else depends on the product table's update timestamp.
+    String STOCK_QUERY_SPACE = "product_stock";
+
+    // Availability is assigned before the quantity so it reads the pre-update value on
+    // databases that evaluate SET clauses left to right (MySQL) as well as standard SQL
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE product SET " +
+           "is_available = CASE WHEN stock_quantity - :quantity > 0 THEN TRUE ELSE FALSE END, " +
+           "stock_quantity = stock_quantity - :quantity " +
+           "WHERE id = :id AND stock_quantity >= :quantity", nativeQuery = true)
+    int decrementStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    // Reserves the same quantity of every listed product in one statement; rows short of stock are left untouched
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE product SET " +
+           "is_available = CASE WHEN stock_quantity - :quantity > 0 THEN TRUE ELSE FALSE END, " +
+           "stock_quantity = stock_quantity - :quantity " +
+           "WHERE id IN :ids AND stock_quantity >= :quantity", nativeQuery = true)
+    int decrementStockIn(@Param("ids") Collection<Long> ids, @Param("quantity") Integer quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE product SET " +
+           "is_available = CASE WHEN stock_quantity + :quantity > 0 THEN TRUE ELSE FALSE END, " +
+           "stock_quantity = stock_quantity + :quantity " +
+           "WHERE id = :id", nativeQuery = true)
+    int incrementStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    // Keyset pagination: every page seeks past the last id seen instead of using OFFSET
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+           "(:available IS NULL OR p.isAvailable = :available) " +
+           "ORDER BY p.id ASC")
+    List<Product> findProductsWithFiltersAfter(
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("available") Boolean available,
+        @Param("afterId") Long afterId,
+        Limit limit
+    );
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    List<Product> findByIsAvailableTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    List<Product> findByIsAvailableFalseAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    List<Product> findByStockQuantityGreaterThanAndIdGreaterThanOrderByIdAsc(Integer quantity, Long afterId, Limit limit);
+
+    List<Product> findByStockQuantityLessThanEqualAndIdGreaterThanOrderByIdAsc(Integer quantity, Long afterId, Limit limit);
 }
@@ -1,12 +1,17 @@
 package com.ECommerceAPI.ECommerceAPI.repository;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.ECommerceAPI.ECommerceAPI.model.User;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Username lookups back every login and token check; the query cache maps them to ids in the user region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
 }
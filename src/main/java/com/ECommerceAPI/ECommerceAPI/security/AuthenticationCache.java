@@ -0,0 +1,73 @@
+package com.ECommerceAPI.ECommerceAPI.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+
+@Component
+public class AuthenticationCache {
+
+    private record CachedToken(UserDetails userDetails, long expiresAtMillis) {}
+
+    private final Cache<String, CachedToken> tokens;
+    private final Cache<String, UserDetails> users;
+
+    public AuthenticationCache(@Value("${security.auth-cache.max-tokens:10000}") long maxTokens,
+                               @Value("${security.auth-cache.max-users:10000}") long maxUsers,
+                               @Value("${security.auth-cache.ttl:5m}") Duration ttl) {
+        long ttlNanos = ttl.toNanos();
+        this.tokens = Caffeine.newBuilder()
+            .maximumSize(maxTokens)
+            .expireAfter(new Expiry<String, CachedToken>() {
+                @Override
+                public long expireAfterCreate(String token, CachedToken cached, long currentTime) {
+                    // Never serve a token from the cache past its own expiry claim
+                    long untilExpiry = Duration.ofMillis(cached.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                    return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, CachedToken cached, long currentTime, long currentDuration) {
+                    return expireAfterCreate(token, cached, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String token, CachedToken cached, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    public UserDetails getByToken(String token) {
+        CachedToken cached = tokens.getIfPresent(token);
+        return cached != null ? cached.userDetails() : null;
+    }
+
+    public void putToken(String token, UserDetails userDetails, Date expiration) {
+        tokens.put(token, new CachedToken(userDetails, expiration.getTime()));
+    }
+
+    public UserDetails getUser(String username, Function<String, UserDetails> loader) {
+        return users.get(username, loader);
+    }
+
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        users.invalidate(username);
+        tokens.asMap().values().removeIf(cached -> cached.userDetails().getUsername().equals(username));
+    }
+}
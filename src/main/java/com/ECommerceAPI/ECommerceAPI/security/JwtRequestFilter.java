@@ -1,5 +1,8 @@
 package com.ECommerceAPI.ECommerceAPI.security;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,11 +11,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter{
@@ -23,30 +28,55 @@ public class JwtRequestFilter extends OncePerRequestFilter{
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                     FilterChain filterChain) throws ServletException, IOException {
                         
             final String authorizationHeader = request.getHeader("Authorization");
+            // Only the authentication work is timed, not the rest of the chain; the outcome tag separates cache hits
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "anonymous";
 
-            String username = null;
-            String jwt = null;
+            try {
+                if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                        && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    String jwt = authorizationHeader.substring(7);
 
-            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")){
-                jwt = authorizationHeader.substring(7);
-                username = jwtUtil.extractUsername(jwt);
-            }
+                    // A token that was already validated resolves with a single cache lookup
+                    UserDetails userDetails = authenticationCache.getByToken(jwt);
+                    outcome = "cached";
+                    if (userDetails == null) {
+                        outcome = "rejected";
+                        try {
+                            JwtUtil.TokenClaims claims = jwtUtil.validateAndExtract(jwt);
+                            UserDetails loadedUser = authenticationCache.getUser(claims.username(), userDetailsService::loadUserByUsername);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                            if (claims.username().equals(loadedUser.getUsername()) && claims.expiration().after(new Date())) {
+                                authenticationCache.putToken(jwt, loadedUser, claims.expiration());
+                                userDetails = loadedUser;
+                                outcome = "validated";
+                            }
+                        } catch (JwtException | UsernameNotFoundException e) {
+                            // Malformed, tampered or expired tokens, and tokens of deleted users, leave the request unauthenticated
+                        }
+                    }
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    
-                    usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                    if (userDetails != null) {
+                        UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
+                                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        
+                        usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                    }
                 }
+            } finally {
+                sample.stop(meterRegistry.timer("security.jwt.filter", "outcome", outcome));
             }
 
             filterChain.doFilter(request, response);
@@ -38,10 +38,16 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**", "/api/users/register").permitAll()
                 .requestMatchers("/api/products/**").permitAll()
                 .requestMatchers("/api/cart/**").hasAnyRole("CUSTOMER", "ADMIN", "MANAGER")
+                .requestMatchers("/api/orders/export", "/api/payments/export").hasAnyRole("ADMIN", "MANAGER")
                 .requestMatchers("/api/orders/**").hasAnyRole("CUSTOMER", "ADMIN", "MANAGER")
                 .requestMatchers("/api/payments/**").hasAnyRole("CUSTOMER", "ADMIN", "MANAGER")
                 .requestMatchers("/api/inventory/**").hasAnyRole("ADMIN", "MANAGER")
                 .requestMatchers("/api/users/**").hasAnyRole("ADMIN", "MANAGER")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                // Actuator is only served on the loopback-bound management port (management.server.*); there the health
+                // check and the Prometheus scrape need no token, everything else still requires ADMIN
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
 
@@ -1,31 +1,46 @@
 package com.ECommerceAPI.ECommerceAPI.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.CartItem;
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.CartItemRepository;
 import com.ECommerceAPI.ECommerceAPI.repository.CartRepository;
 import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
 import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
 
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
+@Timed("service.method")
 public class CartService {
 
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private ProductRepository productRepository;
 
+    // Present only when cart.write-behind.enabled=true; carts are then served from memory
+    @Autowired(required = false)
+    private WriteBehindCartStore writeBehindCartStore;
+
     public Cart getOrCreateCart(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -39,30 +54,110 @@ public class CartService {
     }
 
     public Cart addProductToCart(Long userId, Long productId) {
+        return addProductToCart(userId, productId, 1);
+    }
+
+    // Touches only the affected line item; the cart total is adjusted incrementally
+    public Cart addProductToCart(Long userId, Long productId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+
+        if (writeBehindCartStore != null) {
+            Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+            return writeBehindCartStore.addProduct(userId, product, quantity);
+        }
+
         Cart cart = getOrCreateCart(userId);
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
 
-        cart.addProduct(product);
-        return cartRepository.save(cart);
+        CartItem item = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
+            .orElseGet(() -> new CartItem(cart, product));
+        item.setQuantity(item.getQuantity() + quantity);
+        cartItemRepository.save(item);
+
+        cart.itemAdded(item, quantity);
+        return cart;
     }
 
     public Cart removeProductFromCart(Long userId, Long productId) {
-        Cart cart = getOrCreateCart(userId);
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        return removeProductFromCart(userId, productId, null);
+    }
+
+    // Removes the given quantity, or the whole line when quantity is null or covers it
+    public Cart removeProductFromCart(Long userId, Long productId, Integer quantity) {
+        if (quantity != null && quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+        if (writeBehindCartStore != null) {
+            return writeBehindCartStore.removeProduct(userId, productId, quantity);
+        }
 
-        cart.removeProduct(product);
-        return cartRepository.save(cart);
+        Cart cart = getOrCreateCart(userId);
+        cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
+            .ifPresent(item -> {
+                if (quantity == null || quantity >= item.getQuantity()) {
+                    cart.itemRemoved(item);
+                    cartItemRepository.delete(item);
+                } else {
+                    item.setQuantity(item.getQuantity() - quantity);
+                    cart.itemReduced(item, quantity);
+                }
+            });
+        return cart;
     }
 
     public Cart clearCart(Long userId) {
+        if (writeBehindCartStore != null) {
+            return writeBehindCartStore.clear(userId);
+        }
+
         Cart cart = getOrCreateCart(userId);
+        // A loaded item collection is cleared through orphan removal; otherwise one bulk DELETE avoids loading it
+        if (!Hibernate.isInitialized(cart.getItems())) {
+            cartItemRepository.deleteByCartId(cart.getId());
+        }
         cart.clearCart();
-        return cartRepository.save(cart);
+        return cart;
+    }
+
+    // Loads the cart with its user, items and products in one query; write-behind carts come from memory
+    public Cart getCartForCheckout(Long userId) {
+        if (writeBehindCartStore != null) {
+            return writeBehindCartStore.getCart(userId);
+        }
+        return cartRepository.findByUserId(userId)
+            .orElseThrow(() -> new RuntimeException("Cart not found for user id: " + userId));
+    }
+
+    // Database carts are emptied through orphan removal in the checkout transaction. Write-behind carts
+    // lose only the checked-out quantities, and only once that transaction commits.
+    public void checkedOut(Cart cart, Map<Long, Integer> quantities) {
+        if (writeBehindCartStore == null) {
+            cart.clearCart();
+            return;
+        }
+
+        Long userId = cart.getUser().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeBehindCartStore.removeProducts(userId, quantities);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                writeBehindCartStore.removeProducts(userId, quantities);
+            }
+        });
     }
 
+    @Transactional(readOnly = true)
     public Optional<Cart> getCartByUserId(Long userId) {
+        if (writeBehindCartStore != null) {
+            return Optional.of(writeBehindCartStore.getCart(userId));
+        }
         return cartRepository.findByUserId(userId);
     }
 }
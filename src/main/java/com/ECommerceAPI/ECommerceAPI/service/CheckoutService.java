@@ -0,0 +1,78 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.CartItem;
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.Payment;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository;
+import com.ECommerceAPI.ECommerceAPI.service.OrderService.OrderLine;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Turns a cart into an order in a single transaction: the cart is read once, stock is reserved,
+// the order (and optionally its payment) is saved and the cart is emptied, or none of it happens.
+@Service
+public class CheckoutService {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    public record CheckoutResult(Order order, Payment payment) {}
+
+    @Transactional
+    public CheckoutResult checkout(Long userId, PaymentMethod paymentMethod, String idempotencyKey) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        OrderService.validateIdempotencyKey(idempotencyKey);
+
+        // The first attempt already emptied the cart, so a replay answers with what it produced
+        if (idempotencyKey != null) {
+            Optional<CheckoutResult> existing = findCheckout(userId, idempotencyKey);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+
+        Cart cart = cartService.getCartForCheckout(userId);
+        if (cart.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+        // Items are charged at the price captured when they were added to the cart, not the current catalog price
+        List<OrderLine> lines = cart.getItems().stream()
+            .map(item -> new OrderLine(item.getProduct().getId(), item.getQuantity(), item.getUnitPrice()))
+            .toList();
+        Map<Long, Integer> quantities = cart.getItems().stream()
+            .collect(Collectors.toMap(item -> item.getProduct().getId(), CartItem::getQuantity, Integer::sum));
+
+        // The stock update flushes and clears the persistence context, so the cart is emptied before it
+        cartService.checkedOut(cart, quantities);
+        Order order = orderService.placeOrder(cart.getUser(), lines, idempotencyKey);
+        Payment payment = paymentMethod != null ? paymentService.createPayment(order, paymentMethod) : null;
+
+        return new CheckoutResult(order, payment);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CheckoutResult> findCheckout(Long userId, String idempotencyKey) {
+        return orderService.findByIdempotencyKey(userId, idempotencyKey)
+            .map(order -> new CheckoutResult(order, paymentRepository.findByOrderId(order.getId()).orElse(null)));
+    }
+}
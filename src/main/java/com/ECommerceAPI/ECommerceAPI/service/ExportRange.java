@@ -0,0 +1,13 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import java.time.LocalDateTime;
+
+// Half-open [from, to) date range for exports; either end may be left open
+public record ExportRange(LocalDateTime from, LocalDateTime to) {
+
+    public ExportRange {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes a stream of record rows as NDJSON or CSV, one row at a time. The exports feed it a repository's
+// forward-only streamForExport cursor and write into the HTTP response, so no step holds more than the
+// driver's fetch buffer and memory use does not depend on the number of rows. CSV columns are the
+// record's components in declaration order.
+@Component
+public class ExportWriter {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T extends Record> long write(Class<T> rowType, Stream<T> rows, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = switch (format) {
+            case NDJSON -> writeNdjson(rows, writer);
+            case CSV -> writeCsv(rowType, rows, writer);
+        };
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Stream<? extends Record> rows, Writer writer) throws IOException {
+        long count = 0;
+        try (SequenceWriter sequence = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            for (Iterator<? extends Record> it = rows.iterator(); it.hasNext(); count++) {
+                sequence.write(it.next());
+            }
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    private long writeCsv(Class<? extends Record> rowType, Stream<? extends Record> rows, Writer writer) throws IOException {
+        RecordComponent[] columns = rowType.getRecordComponents();
+        for (int i = 0; i < columns.length; i++) {
+            writer.write(i == 0 ? "" : ",");
+            writer.write(columns[i].getName());
+        }
+        writer.write("\r\n");
+
+        long count = 0;
+        for (Iterator<? extends Record> it = rows.iterator(); it.hasNext(); count++) {
+            Record row = it.next();
+            for (int i = 0; i < columns.length; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write(csvValue(value(columns[i], row)));
+            }
+            writer.write("\r\n");
+        }
+        return count;
+    }
+
+    private static Object value(RecordComponent column, Record row) {
+        try {
+            return column.getAccessor().invoke(row);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read export column " + column.getName(), e);
+        }
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof Enum<?> constant ? constant.name() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,23 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Thrown when a reservation cannot be met in full; nothing is reserved in that case
+public class InsufficientStockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public record Shortage(Long productId, Integer requested, Integer available) implements Serializable {}
+
+    private final List<Shortage> shortages;
+
+    public InsufficientStockException(List<Shortage> shortages) {
+        super("Insufficient stock for " + shortages.size() + " product(s)");
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<Shortage> getShortages() {
+        return shortages;
+    }
+}
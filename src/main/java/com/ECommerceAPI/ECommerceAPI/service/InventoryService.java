@@ -1,47 +1,120 @@
 package com.ECommerceAPI.ECommerceAPI.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("service.method")
 public class InventoryService {
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${inventory.atomic-stock-updates:true}")
+    private boolean atomicStockUpdates;
+
+    @Value("${inventory.bulk.max-adjustments:50000}")
+    private int maxBulkAdjustments;
+
+    @Value("${inventory.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @PostConstruct
+    void validateConfiguration() {
+        if (bulkChunkSize <= 0) {
+            throw new IllegalStateException("inventory.bulk.chunk-size must be greater than zero");
+        }
+    }
+
+    public enum AdjustmentStatus {
+        UPDATED, NOT_FOUND, INSUFFICIENT_STOCK, INVALID
+    }
+
+    public record StockAdjustment(Long productId, Integer delta, Integer absolute) {}
+
+    public record StockAdjustmentResult(Long productId, AdjustmentStatus status, Integer stockQuantity, String message) {}
+
     public Product addStock(Long productId, Integer quantity) {
+        requirePositive(quantity);
+        if (atomicStockUpdates) {
+            lockCachedStock(List.of(productId));
+            if (productRepository.incrementStock(productId, quantity) == 0) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+            Product product = findProduct(productId);
+            return stockChanged(product, product.getStockQuantity() - quantity);
+        }
+
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
         
+        int previousStock = product.getStockQuantity();
         product.addStock(quantity);
-        return productRepository.save(product);
+        return stockChanged(productRepository.save(product), previousStock);
     }
 
     public Product reduceStock(Long productId, Integer quantity) {
+        requirePositive(quantity);
+        if (atomicStockUpdates) {
+            // Single conditional UPDATE: the row lock is held only for the statement and stock can never go negative
+            lockCachedStock(List.of(productId));
+            if (productRepository.decrementStock(productId, quantity) == 0) {
+                Product product = findProduct(productId);
+                throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity() + ", Requested: " + quantity);
+            }
+            Product product = findProduct(productId);
+            return stockChanged(product, product.getStockQuantity() + quantity);
+        }
+
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
         
+        int previousStock = product.getStockQuantity();
         if (!product.reduceStock(quantity)) {
             throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity() + ", Requested: " + quantity);
         }
         
-        return productRepository.save(product);
+        return stockChanged(productRepository.save(product), previousStock);
     }
 
     public Product updateStock(Long productId, Integer newQuantity) {
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
         
+        int previousStock = product.getStockQuantity();
         product.setStockQuantity(newQuantity);
-        return productRepository.save(product);
+        return stockChanged(productRepository.save(product), previousStock);
     }
 
     public Product setMinStockLevel(Long productId, Integer minLevel) {
@@ -49,29 +122,181 @@ public class InventoryService {
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
         
         product.setMinStockLevel(minLevel);
-        return productRepository.save(product);
+        return stockChanged(productRepository.save(product), product.getStockQuantity());
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getLowStockProducts() {
-        return productRepository.findAll().stream()
-            .filter(Product::isLowStock)
-            .toList();
+        return productRepository.findLowStockProducts();
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getOutOfStockProducts() {
-        return productRepository.findAll().stream()
-            .filter(product -> !product.isInStock())
-            .toList();
+        return productRepository.findByStockQuantityLessThanEqual(0);
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getAvailableProducts() {
-        return productRepository.findAll().stream()
-            .filter(Product::isInStock)
-            .toList();
+        return productRepository.findByStockQuantityGreaterThan(0);
+    }
+
+    public List<StockAdjustmentResult> bulkAdjustStock(List<StockAdjustment> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new IllegalArgumentException("Adjustments cannot be null or empty");
+        }
+        if (adjustments.size() > maxBulkAdjustments) {
+            throw new IllegalArgumentException("At most " + maxBulkAdjustments + " adjustments are allowed per request");
+        }
+
+        List<StockAdjustmentResult> results = new ArrayList<>(adjustments.size());
+        for (int from = 0; from < adjustments.size(); from += bulkChunkSize) {
+            List<StockAdjustment> chunk = adjustments.subList(from, Math.min(from + bulkChunkSize, adjustments.size()));
+            results.addAll(applyAdjustments(chunk));
+
+            // Flushing per chunk lets Hibernate send the dirty products as ordered JDBC batches,
+            // and clearing keeps the persistence context from growing with the sync size
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return results;
+    }
+
+    // Reserves every requested quantity or none. Products are read once to report shortages up front,
+    // then reserved with one conditional UPDATE per distinct quantity (one in total for typical orders).
+    // Runs in the caller's transaction, so a failed order releases the reservation on rollback.
+    public List<Product> reserveStock(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("Quantities cannot be null or empty");
+        }
+        if (quantities.values().stream().anyMatch(quantity -> quantity == null || quantity <= 0)) {
+            throw new IllegalArgumentException("Quantities must be positive");
+        }
+
+        List<Product> products = productRepository.findAllById(quantities.keySet());
+        if (products.size() != quantities.size()) {
+            throw new RuntimeException("One or more products not found");
+        }
+        List<InsufficientStockException.Shortage> shortages = shortages(products, quantities);
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException(shortages);
+        }
+
+        Map<Integer, List<Long>> idsByQuantity = quantities.entrySet().stream()
+            .collect(Collectors.groupingBy(Map.Entry::getValue,
+                Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        lockCachedStock(quantities.keySet());
+        int reserved = 0;
+        for (Map.Entry<Integer, List<Long>> group : idsByQuantity.entrySet()) {
+            reserved += productRepository.decrementStockIn(group.getValue(), group.getKey());
+        }
+        if (reserved != quantities.size()) {
+            // Another order took the stock between the read and the update; the caller's rollback undoes the partial reservation
+            throw new InsufficientStockException(shortages(productRepository.findAllById(quantities.keySet()), quantities));
+        }
+
+        // The update cleared the persistence context, so these copies are detached and only mirror the new stock
+        for (Product product : products) {
+            int previousStock = product.getStockQuantity();
+            product.reduceStock(quantities.get(product.getId()));
+            stockChanged(product, previousStock);
+        }
+        return products;
     }
 
     public boolean checkStockAvailability(Long productId, Integer quantity) {
         Optional<Product> product = productRepository.findById(productId);
         return product.isPresent() && product.get().getStockQuantity() >= quantity;
     }
+
+    private static List<InsufficientStockException.Shortage> shortages(List<Product> products, Map<Long, Integer> quantities) {
+        return products.stream()
+            .filter(product -> product.getStockQuantity() < quantities.get(product.getId()))
+            .map(product -> new InsufficientStockException.Shortage(
+                product.getId(), quantities.get(product.getId()), product.getStockQuantity()))
+            .toList();
+    }
+
+    // A negative quantity would turn a reduction into an addition and slip past the stock guard
+    private static void requirePositive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+    }
+
+    // The native stock UPDATEs bypass the product region of the second-level cache, so their rows are soft-locked
+    // there the way Hibernate locks an entity it updates: until the transaction completes every read misses and
+    // no load can cache the uncommitted (or later rolled back) stock, and afterwards only fresh loads are cached
+    private void lockCachedStock(Collection<Long> productIds) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Product.class);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        for (Long productId : productIds) {
+            Object key = cacheAccess.generateCacheKey(productId, persister, session.getFactory(), session.getTenantIdentifier());
+            SoftLock lock = cacheAccess.lockItem(session, key, null);
+            session.getActionQueue().registerProcess((success, completed) -> cacheAccess.unlockItem(completed, key, lock));
+        }
+    }
+
+    private Product stockChanged(Product product, int previousStock) {
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(product, previousStock));
+        return product;
+    }
+
+    private Product findProduct(Long productId) {
+        return productRepository.findById(productId)
+            .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+    }
+
+    private List<StockAdjustmentResult> applyAdjustments(List<StockAdjustment> chunk) {
+        List<Long> productIds = chunk.stream()
+            .map(StockAdjustment::productId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        // Locked, not just read: these quantities are written back as absolute values
+        Map<Long, Product> products = productRepository.findAllByIdForUpdate(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Integer> previousStock = products.values().stream()
+            .collect(Collectors.toMap(Product::getId, Product::getStockQuantity));
+
+        List<StockAdjustmentResult> results = new ArrayList<>(chunk.size());
+        for (StockAdjustment adjustment : chunk) {
+            results.add(applyAdjustment(adjustment, products));
+        }
+        results.stream()
+            .filter(result -> result.status() == AdjustmentStatus.UPDATED)
+            .map(StockAdjustmentResult::productId)
+            .distinct()
+            .forEach(productId -> stockChanged(products.get(productId), previousStock.get(productId)));
+        return results;
+    }
+
+    private StockAdjustmentResult applyAdjustment(StockAdjustment adjustment, Map<Long, Product> products) {
+        Long productId = adjustment.productId();
+        if (productId == null || (adjustment.delta() == null) == (adjustment.absolute() == null)) {
+            return new StockAdjustmentResult(productId, AdjustmentStatus.INVALID, null,
+                "Exactly one of delta or absolute must be provided with a product id");
+        }
+        if (adjustment.absolute() != null && adjustment.absolute() < 0) {
+            return new StockAdjustmentResult(productId, AdjustmentStatus.INVALID, null, "Absolute stock cannot be negative");
+        }
+
+        Product product = products.get(productId);
+        if (product == null) {
+            return new StockAdjustmentResult(productId, AdjustmentStatus.NOT_FOUND, null, "Product not found with id: " + productId);
+        }
+
+        if (adjustment.absolute() != null) {
+            product.setStockQuantity(adjustment.absolute());
+        } else if (adjustment.delta() >= 0) {
+            product.addStock(adjustment.delta());
+        } else if (!product.reduceStock(-adjustment.delta())) {
+            return new StockAdjustmentResult(productId, AdjustmentStatus.INSUFFICIENT_STOCK, product.getStockQuantity(),
+                "Insufficient stock. Available: " + product.getStockQuantity() + ", Requested: " + -adjustment.delta());
+        }
+        return new StockAdjustmentResult(productId, AdjustmentStatus.UPDATED, product.getStockQuantity(), null);
+    }
 }
@@ -1,25 +1,38 @@
 package com.ECommerceAPI.ECommerceAPI.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ECommerceAPI.ECommerceAPI.model.CursorPage;
 import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.OrderItem;
 import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.model.User;
 import com.ECommerceAPI.ECommerceAPI.repository.OrderRepository;
-import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.OrderRepository.OrderExportRow;
 import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("service.method")
 public class OrderService {
 
     @Autowired
@@ -29,10 +42,24 @@ public class OrderService {
     private UserRepository userRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    // One product and quantity to order; a null unit price charges the product's current price
+    public record OrderLine(Long productId, int quantity, BigDecimal unitPrice) {}
 
-    @Transactional
     public Order createOrder(Long userId, Set<Long> productIds) {
+        return createOrder(userId, productIds, null);
+    }
+
+    // Stock for every product is reserved in the same transaction as the order insert, so either both
+    // happen or neither does. A repeated idempotency key returns the order it created the first time.
+    @Transactional
+    public Order createOrder(Long userId, Set<Long> productIds, String idempotencyKey) {
         // Input validation
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
@@ -40,34 +67,73 @@ public class OrderService {
         if (productIds == null || productIds.isEmpty()) {
             throw new IllegalArgumentException("Product IDs cannot be null or empty");
         }
-        
+        validateIdempotencyKey(idempotencyKey);
+
+        if (idempotencyKey != null) {
+            Optional<Order> existing = findByIdempotencyKey(userId, idempotencyKey);
+            if (existing.isPresent()) {
+                // Replays must describe the same order; reusing a key for different products is a client error
+                Set<Long> orderedIds = existing.get().getItems().stream()
+                    .map(OrderItem::getProductId)
+                    .collect(Collectors.toSet());
+                if (!orderedIds.equals(productIds)) {
+                    throw new IllegalArgumentException("Idempotency key was already used for a different order");
+                }
+                return existing.get();
+            }
+        }
+
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id : " +userId));
 
-        List<Product> productsFound = productRepository.findAllById(productIds);
-        if (productsFound.size() != productIds.size()) {          
-              throw new RuntimeException("One or more products not found");
-        }
-
-        Set<Product> productsToOrder = new HashSet<>(productsFound);
+        List<OrderLine> lines = productIds.stream()
+            .map(productId -> new OrderLine(productId, 1, null))
+            .toList();
+        return placeOrder(user, lines, idempotencyKey);
+    }
 
-        BigDecimal totalPrice = productsToOrder.stream()
-            .map(Product::getPrice)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Reserves the lines' quantities and saves the order for an already loaded user; callers check the key for replays.
+    // Each item captures the product's name as reserved and the line's price, and the order total is stored with it.
+    @Transactional
+    public Order placeOrder(User user, List<OrderLine> lines, String idempotencyKey) {
+        Map<Long, Integer> quantities = lines.stream()
+            .collect(Collectors.toMap(OrderLine::productId, OrderLine::quantity, Integer::sum));
+        Map<Long, Product> reserved = inventoryService.reserveStock(quantities).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
 
         Order order = new Order();
         order.setUser(user);
-        order.setProducts(productsToOrder);
-        order.setTotalAmount(totalPrice);
-        order.setOrderDate(LocalDateTime.now());
+        lines.stream()
+            .sorted(Comparator.comparing(OrderLine::productId))
+            .forEach(line -> {
+                Product product = reserved.get(line.productId());
+                order.addItem(product, line.quantity(), line.unitPrice() != null ? line.unitPrice() : product.getPrice());
+            });
+        // Stored columns keep microseconds; a finer in-memory value would not round-trip through the page cursor
+        order.setOrderDate(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        order.setIdempotencyKey(idempotencyKey);
 
         return orderRepository.save(order);
     }
 
+    static void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Order> findByIdempotencyKey(Long userId, String idempotencyKey) {
+        return orderRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+    }
+
+    // Newest first. The user is only looked up separately to tell an unknown user from one without orders
     public List<Order> getOrdersForUser (Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found with id : " + userId));
-        return orderRepository.findByUser(user);
+        List<Order> orders = orderRepository.findByUserIdOrderByOrderDateDescIdDesc(userId);
+        if (orders.isEmpty() && !userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found with id : " + userId);
+        }
+        return orders;
     }
 
     public Order updateOrderStatus(Long orderId, OrderStatus newStatus) {
@@ -90,12 +156,36 @@ public class OrderService {
     }
 
     public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findAll().stream()
-            .filter(order -> order.getStatus() == status)
-            .toList();
+        return orderRepository.findByStatus(status);
+    }
+
+    public CursorPage<Order> getOrdersByStatus(OrderStatus status, String cursor, Integer size) {
+        int pageSize = CursorPage.resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Order> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findByStatusOrderByOrderDateDescIdDesc(status, limit);
+        } else {
+            String[] keys = CursorPage.decodeCursor(cursor, 2);
+            try {
+                rows = orderRepository.findByStatusBefore(status, LocalDateTime.parse(keys[0]), Long.parseLong(keys[1]), limit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+        return CursorPage.of(rows, pageSize, order -> CursorPage.encodeCursor(order.getOrderDate(), order.getId()));
     }
 
     public Optional<Order> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId);
+        return orderRepository.findWithDetailsById(orderId);
+    }
+
+    // Streams every order placed in the range to the output
+    @Transactional(readOnly = true)
+    public long exportOrders(ExportRange range, OrderStatus status, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<OrderExportRow> rows = orderRepository.streamForExport(range.from(), range.to(), status)) {
+            return exportWriter.write(OrderExportRow.class, rows, format, out);
+        }
     }
 }
@@ -0,0 +1,79 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Runs gateway calls off the request thread, one virtual thread per payment. A slot is claimed before
+// the payment is marked PROCESSING, so a full pipeline turns requests away instead of queueing work
+// without bound, and no database connection is held while a gateway call is in flight.
+@Component
+public class PaymentProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore slots;
+    private final int maxInFlight;
+    private final Duration shutdownTimeout;
+
+    public PaymentProcessor(@Value("${payment.processing.max-in-flight:200}") int maxInFlight,
+                            @Value("${payment.processing.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.slots = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public void reserve() {
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("Payment processing is at capacity");
+        }
+    }
+
+    // Gives back a slot whose payment never reached execute
+    public void release() {
+        slots.release();
+    }
+
+    public void execute(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Payment processing task failed", e);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    public int inFlight() {
+        return maxInFlight - slots.availablePermits();
+    }
+
+    // Drains on context close, before any bean is destroyed: a running payment still needs the gateway
+    // client and the database to record its outcome
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("{} payments still processing at shutdown", inFlight());
+            executor.shutdownNow();
+        }
+    }
+}
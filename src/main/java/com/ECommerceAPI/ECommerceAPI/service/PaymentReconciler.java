@@ -0,0 +1,170 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeResult;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGatewayClient;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGatewayException;
+import com.ECommerceAPI.ECommerceAPI.model.Payment;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentStatus;
+import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository.PaymentReference;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Revisits payments left in PROCESSING longer than any gateway call can take: charges whose outcome was
+// unknown (timeouts, exhausted retries) and crashes between marking a payment PROCESSING and recording the
+// answer. Stale payments are read in keyset pages, the gateway is asked for its decision with bounded
+// parallelism, and each page is settled in one transaction. Payments whose lookup fails are left for the next run.
+@Component
+@ConditionalOnProperty(name = "payment.reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciler.class);
+
+    public record ReconciliationRun(LocalDateTime startedAt, long durationMillis, long backlog, int examined,
+                                    int completed, int failed, int requeued, int lookupErrors) {
+
+        public double paymentsPerSecond() {
+            return durationMillis == 0 ? examined : examined * 1000.0 / durationMillis;
+        }
+    }
+
+    public record ReconciliationStats(long runs, long reconciled, long lookupErrors, ReconciliationRun lastRun) {}
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    private final Duration staleAfter;
+    private final int pageSize;
+    private final Semaphore lookups;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder reconciled = new LongAdder();
+    private final LongAdder lookupErrors = new LongAdder();
+    private final AtomicReference<ReconciliationRun> lastRun = new AtomicReference<>();
+
+    public PaymentReconciler(@Value("${payment.reconciliation.stale-after:5m}") Duration staleAfter,
+                             @Value("${payment.reconciliation.page-size:200}") int pageSize,
+                             @Value("${payment.reconciliation.max-concurrent-lookups:16}") int maxConcurrentLookups) {
+        this.staleAfter = staleAfter;
+        this.pageSize = pageSize;
+        this.lookups = new Semaphore(maxConcurrentLookups);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval:1m}",
+               initialDelayString = "${payment.reconciliation.interval:1m}")
+    public synchronized ReconciliationRun reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        LocalDateTime cutoff = startedAt.minus(staleAfter);
+        long backlog = paymentRepository.countStale(PaymentStatus.PROCESSING, cutoff);
+
+        int examined = 0, completed = 0, failed = 0, requeued = 0, errors = 0;
+        long afterId = 0L;
+        List<PaymentReference> page;
+        do {
+            page = paymentRepository.findStale(PaymentStatus.PROCESSING, cutoff, afterId, Limit.of(pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).id();
+            examined += page.size();
+
+            Map<Long, Optional<ChargeResult>> decisions = lookupAll(page);
+            errors += page.size() - decisions.size();
+            if (decisions.isEmpty()) {
+                continue;
+            }
+            for (Payment payment : paymentService.settleStuckPayments(decisions)) {
+                switch (payment.getStatus()) {
+                    case COMPLETED -> completed++;
+                    case FAILED -> failed++;
+                    default -> requeued++;
+                }
+            }
+        } while (page.size() == pageSize);
+
+        ReconciliationRun run = new ReconciliationRun(startedAt, Duration.ofNanos(System.nanoTime() - started).toMillis(),
+            backlog, examined, completed, failed, requeued, errors);
+        runs.increment();
+        reconciled.add(completed + failed + requeued);
+        lookupErrors.add(errors);
+        lastRun.set(run);
+        if (examined > 0) {
+            log.info("Payment reconciliation: {}", run);
+        }
+        return run;
+    }
+
+    public ReconciliationStats getStats() {
+        return new ReconciliationStats(runs.sum(), reconciled.sum(), lookupErrors.sum(), lastRun.get());
+    }
+
+    public long getBacklog() {
+        return paymentRepository.countStale(PaymentStatus.PROCESSING, LocalDateTime.now().minus(staleAfter));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Payments whose lookup failed are missing from the result
+    private Map<Long, Optional<ChargeResult>> lookupAll(List<PaymentReference> page) {
+        List<Future<Optional<ChargeResult>>> futures = new ArrayList<>(page.size());
+        for (PaymentReference payment : page) {
+            futures.add(executor.submit(() -> {
+                lookups.acquire();
+                try {
+                    return paymentGatewayClient.lookup(payment.transactionId());
+                } finally {
+                    lookups.release();
+                }
+            }));
+        }
+
+        Map<Long, Optional<ChargeResult>> decisions = new HashMap<>();
+        for (int i = 0; i < page.size(); i++) {
+            try {
+                decisions.put(page.get(i).id(), futures.get(i).get());
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof PaymentGatewayException)) {
+                    log.warn("Lookup failed for payment {}", page.get(i).id(), e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                break;
+            }
+        }
+        return decisions;
+    }
+}
@@ -1,20 +1,37 @@
 package com.ECommerceAPI.ECommerceAPI.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ECommerceAPI.ECommerceAPI.gateway.CircuitOpenException;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeRequest;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeResult;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGatewayClient;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGatewayException;
 import com.ECommerceAPI.ECommerceAPI.model.*;
 import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository.PaymentExportRow;
 import com.ECommerceAPI.ECommerceAPI.repository.OrderRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed("service.method")
 public class PaymentService {
 
     @Autowired
@@ -23,6 +40,24 @@ public class PaymentService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Autowired
+    private ExportWriter exportWriter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public record PaymentStatusView(Long paymentId, PaymentStatus status, String transactionId,
+                                    String failureReason, LocalDateTime processedAt) {}
+
     public Payment createPayment(Long orderId, PaymentMethod paymentMethod) {
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
@@ -33,6 +68,11 @@ public class PaymentService {
             throw new RuntimeException("Payment already exists for order: " + orderId);
         }
 
+        return createPayment(order, paymentMethod);
+    }
+
+    // For an order created in the current transaction, which cannot have a payment yet
+    public Payment createPayment(Order order, PaymentMethod paymentMethod) {
         Payment payment = new Payment();
         payment.setOrder(order);
         payment.setPaymentMethod(paymentMethod);
@@ -43,35 +83,96 @@ public class PaymentService {
         return paymentRepository.save(payment);
     }
 
+    // Marks the payment PROCESSING in a short transaction and returns straight away; the gateway call
+    // and the final update happen on the payment processor. Callers poll getPaymentStatus for the outcome.
+    // While the gateway circuit is open the payment is left PENDING and the request turned away.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Payment processPayment(Long paymentId) {
-        Payment payment = paymentRepository.findById(paymentId)
-            .orElseThrow(() -> new RuntimeException("Payment not found with id: " + paymentId));
+        if (!paymentGatewayClient.isAvailable()) {
+            throw new RejectedExecutionException("Payment gateway is unavailable");
+        }
+        paymentProcessor.reserve();
+        Payment payment;
+        try {
+            payment = transactionTemplate.execute(status -> startProcessing(paymentId));
+        } catch (RuntimeException e) {
+            paymentProcessor.release();
+            throw e;
+        }
+
+        paymentProcessor.execute(() -> {
+            ChargeResult result;
+            try {
+                result = paymentGatewayClient.charge(
+                    new ChargeRequest(payment.getTransactionId(), payment.getAmount(), payment.getPaymentMethod()));
+            } catch (CircuitOpenException e) {
+                // Never sent, so nothing was charged: the payment can safely be processed again
+                transactionTemplate.executeWithoutResult(status -> paymentRepository.transitionStatus(
+                    paymentId, PaymentStatus.PROCESSING, PaymentStatus.PENDING, LocalDateTime.now()));
+                return;
+            } catch (PaymentGatewayException e) {
+                // Timed out, interrupted or out of retries: the gateway may still have taken the charge, so the
+                // payment stays PROCESSING until PaymentReconciler looks up the gateway's decision
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> completeProcessing(paymentId, result));
+        });
+        return payment;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PaymentStatusView> getPaymentStatus(Long paymentId) {
+        return paymentRepository.findById(paymentId)
+            .map(payment -> new PaymentStatusView(payment.getId(), payment.getStatus(), payment.getTransactionId(),
+                payment.getFailureReason(), payment.getProcessedAt()));
+    }
 
-        if (payment.getStatus() != PaymentStatus.PENDING) {
+    private Payment startProcessing(Long paymentId) {
+        if (paymentRepository.transitionStatus(paymentId, PaymentStatus.PENDING, PaymentStatus.PROCESSING, LocalDateTime.now()) == 0) {
+            paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found with id: " + paymentId));
             throw new RuntimeException("Payment is not in pending status");
         }
+        return paymentRepository.findById(paymentId).orElseThrow();
+    }
 
-        // Simulate payment processing
-        payment.setStatus(PaymentStatus.PROCESSING);
-        payment = paymentRepository.save(payment);
+    private void completeProcessing(Long paymentId, ChargeResult result) {
+        settle(paymentId, Optional.of(result));
+    }
 
-        // Simulate payment gateway response (in real implementation, this would be an external API call)
-        boolean paymentSuccessful = simulatePaymentGateway(payment);
+    // Settles payments found stuck in PROCESSING in one transaction, returning those it changed.
+    // A payment the gateway never received goes back to PENDING so it can be processed again.
+    public List<Payment> settleStuckPayments(Map<Long, Optional<ChargeResult>> decisions) {
+        List<Payment> settled = new ArrayList<>();
+        decisions.forEach((paymentId, decision) -> settle(paymentId, decision).ifPresent(settled::add));
+        return settled;
+    }
+
+    // A late gateway completion and the reconciler can both hold a decision for the same payment, so the
+    // move out of PROCESSING is a conditional update and only its winner records the outcome on the payment and order
+    private Optional<Payment> settle(Long paymentId, Optional<ChargeResult> decision) {
+        PaymentStatus to = decision
+            .map(result -> result.approved() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED)
+            .orElse(PaymentStatus.PENDING);
+        if (paymentRepository.transitionStatus(paymentId, PaymentStatus.PROCESSING, to, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+        decision.ifPresent(result -> applyResult(payment, result));
+        return Optional.of(payment);
+    }
 
-        if (paymentSuccessful) {
+    private void applyResult(Payment payment, ChargeResult result) {
+        if (result.approved()) {
             payment.setStatus(PaymentStatus.COMPLETED);
-            payment.setPaymentGatewayResponse("Payment processed successfully");
-            
+            payment.setPaymentGatewayResponse(result.message());
+
             // Update order status to confirmed
-            Order order = payment.getOrder();
-            order.setStatus(OrderStatus.CONFIRMED);
-            orderRepository.save(order);
+            payment.getOrder().setStatus(OrderStatus.CONFIRMED);
         } else {
             payment.setStatus(PaymentStatus.FAILED);
-            payment.setFailureReason("Payment gateway declined the transaction");
+            payment.setFailureReason(result.message());
         }
-
-        return paymentRepository.save(payment);
     }
 
     public Payment refundPayment(Long paymentId, String reason) {
@@ -110,14 +211,15 @@ public class PaymentService {
         return paymentRepository.findByTransactionId(transactionId);
     }
 
-    private String generateTransactionId() {
-        return "TXN_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    // Streams every payment made in the range to the output
+    @Transactional(readOnly = true)
+    public long exportPayments(ExportRange range, PaymentStatus status, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamForExport(range.from(), range.to(), status)) {
+            return exportWriter.write(PaymentExportRow.class, rows, format, out);
+        }
     }
 
-    private boolean simulatePaymentGateway(Payment payment) {
-        // Simulate payment gateway processing
-        // In a real implementation, this would call an external payment service
-        // For demo purposes, we'll randomly succeed or fail
-        return Math.random() > 0.1; // 90% success rate
+    private String generateTransactionId() {
+        return "TXN_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
     }
 }
@@ -0,0 +1,45 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.config.CacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Evicts the changed product, and every cached listing when the change can move the product between
+// listings. Plain stock movements (every order reservation) keep the listings, which may then show a
+// stock count up to the pages TTL old. Eviction runs immediately so the writing transaction reads its
+// own change, and again once it completes so a concurrent reader cannot re-cache the pre-commit row in between.
+@Component
+public class ProductCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(event);
+                }
+            });
+        }
+    }
+
+    private void evict(ProductChangedEvent event) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        Cache pages = cacheManager.getCache(CacheConfig.PRODUCT_PAGES);
+        if (products != null) {
+            products.evict(event.productId());
+        }
+        if (pages != null && event.listingsAffected()) {
+            pages.clear();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+
+// Published after a product is written; product is null when it was deleted.
+// listingsAffected is false when only the stock count moved without the product going in or out of stock
+public record ProductChangedEvent(Long productId, Product product, boolean listingsAffected) {
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), product, true);
+    }
+
+    public static ProductChangedEvent stockChanged(Product product, int previousStock) {
+        return new ProductChangedEvent(product.getId(), product, (previousStock > 0) != product.isInStock());
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, true);
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Builds the in-memory product indexes at startup and applies every ProductChangedEvent to them.
+// Events are applied straight away so the writing transaction sees its own change; if that
+// transaction rolls back, the product is re-read and re-indexed from what was actually committed.
+@Component
+public class ProductIndexUpdater {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductPriceIndex priceIndex;
+
+    private final TransactionTemplate committedReads;
+
+    public ProductIndexUpdater(PlatformTransactionManager transactionManager) {
+        this.committedReads = new TransactionTemplate(transactionManager);
+        this.committedReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.committedReads.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0L;
+        List<Product> page;
+        do {
+            page = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_PAGE_SIZE));
+            page.forEach(this::index);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.product());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reindexCommitted(event.productId());
+                    }
+                }
+            });
+        }
+    }
+
+    private void reindexCommitted(Long productId) {
+        committedReads.executeWithoutResult(status -> productRepository.findById(productId)
+            .ifPresentOrElse(this::index, () -> remove(productId)));
+    }
+
+    private void index(Product product) {
+        searchIndex.index(product);
+        priceIndex.index(product);
+    }
+
+    private void remove(Long productId) {
+        searchIndex.remove(productId);
+        priceIndex.remove(productId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Products ordered by (price, id), with a per-product snapshot of the attributes used for faceting,
+// kept in step by ProductIndexUpdater. Range scans and price-ordered pages walk the skip list
+// without locking; writers are serialized.
+@Component
+public class ProductPriceIndex {
+
+    public record Entry(BigDecimal price, Long productId) {}
+
+    public record Snapshot(Entry entry, boolean available, boolean inStock) {}
+
+    public static final Comparator<Entry> PRICE_ORDER = Comparator.comparing(Entry::price)
+        .thenComparing(Entry::productId);
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(PRICE_ORDER);
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public synchronized void index(Product product) {
+        if (product.getPrice() == null) {
+            remove(product.getId());
+            return;
+        }
+        Entry entry = new Entry(product.getPrice(), product.getId());
+        Snapshot snapshot = new Snapshot(entry, Boolean.TRUE.equals(product.getIsAvailable()),
+            product.getStockQuantity() != null && product.getStockQuantity() > 0);
+        Snapshot previous = snapshots.put(product.getId(), snapshot);
+        if (previous != null) {
+            // Stock-only changes keep the same sort key; leave it in place so concurrent scans never miss it
+            if (PRICE_ORDER.compare(previous.entry(), entry) == 0) {
+                return;
+            }
+            entries.remove(previous.entry());
+        }
+        entries.add(entry);
+    }
+
+    public synchronized void remove(Long productId) {
+        Snapshot previous = snapshots.remove(productId);
+        if (previous != null) {
+            entries.remove(previous.entry());
+        }
+    }
+
+    // Entries priced within [minPrice, maxPrice] in price order, starting after the given entry.
+    // Either bound may be null for an open-ended range.
+    public NavigableSet<Entry> range(BigDecimal minPrice, BigDecimal maxPrice, Entry after) {
+        NavigableSet<Entry> range = entries;
+        if (maxPrice != null) {
+            Entry highest = new Entry(maxPrice, Long.MAX_VALUE);
+            if (after != null && PRICE_ORDER.compare(after, highest) >= 0) {
+                return Collections.emptyNavigableSet();
+            }
+            range = range.headSet(highest, true);
+        }
+        Entry lowest = minPrice != null ? new Entry(minPrice, Long.MIN_VALUE) : null;
+        if (after != null && (lowest == null || PRICE_ORDER.compare(after, lowest) >= 0)) {
+            range = range.tailSet(after, false);
+        } else if (lowest != null) {
+            range = range.tailSet(lowest, true);
+        }
+        return range;
+    }
+
+    public Snapshot snapshot(Long productId) {
+        return snapshots.get(productId);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+}
@@ -0,0 +1,249 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over product name and description, kept in step by ProductIndexUpdater.
+// Terms match whole tokens, token prefixes, or (via a trigram index over the vocabulary) token infixes.
+@Component
+public class ProductSearchIndex {
+
+    public record Match(Long productId, int score) {}
+
+    public static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score).reversed()
+        .thenComparing(Match::productId);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_BOOST = 3;
+    private static final int PREFIX_BOOST = 2;
+    private static final int INFIX_BOOST = 1;
+    private static final int NGRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // token -> (product id -> field weight)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    // trigram -> vocabulary tokens containing it
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    // product id -> its indexed token weights, needed to unindex on update or delete
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+    // normalized query -> its matches sorted by RANKING, so paging seeks into one array instead of re-searching.
+    // Filled under the read lock and emptied under the write lock, so an entry never outlives an index change
+    private final Cache<String, Match[]> rankings = Caffeine.newBuilder()
+        .maximumSize(1_000)
+        .build();
+
+    public void index(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(product.getName()).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+        tokenize(product.getDescription()).forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            // Stock and price updates leave the text alone; keep the cached rankings for those
+            if (weights.equals(documents.get(product.getId()))) {
+                return;
+            }
+            rankings.invalidateAll();
+            unindex(product.getId());
+            documents.put(product.getId(), weights);
+            weights.forEach((token, weight) -> {
+                Map<Long, Integer> docs = postings.get(token);
+                if (docs == null) {
+                    docs = new HashMap<>();
+                    postings.put(token, docs);
+                    for (String gram : ngrams(token)) {
+                        trigrams.computeIfAbsent(gram, key -> new HashSet<>()).add(token);
+                    }
+                }
+                docs.put(product.getId(), weight);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            rankings.invalidateAll();
+            unindex(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Every query term has to match; results come back ranked by score, then id
+    public List<Match> search(String query) {
+        return searchAfter(query, null);
+    }
+
+    // The ranked matches strictly after the given one, found by binary search rather than a scan from the top
+    public List<Match> searchAfter(String query, Match after) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Match[] ranked = rankings.get(String.join(" ", terms), key -> rank(terms));
+            int start = 0;
+            if (after != null) {
+                int position = Arrays.binarySearch(ranked, after, RANKING);
+                start = position >= 0 ? position + 1 : -position - 1;
+            }
+            return Collections.unmodifiableList(Arrays.asList(ranked).subList(start, ranked.length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rechecks a loaded product against the query, guarding against index entries that went stale
+    public boolean matches(Product product, String query) {
+        List<String> tokens = new ArrayList<>(tokenize(product.getName()));
+        tokens.addAll(tokenize(product.getDescription()));
+        return tokenize(query).stream()
+            .allMatch(term -> tokens.stream().anyMatch(token -> token.contains(term)));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Match[] rank(List<String> terms) {
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return new Match[0];
+            }
+        }
+
+        Match[] ranked = new Match[scores.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            ranked[i++] = new Match(entry.getKey(), entry.getValue());
+        }
+        Arrays.sort(ranked, RANKING);
+        return ranked;
+    }
+
+    private Map<Long, Integer> scoreTerm(String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        postings.subMap(term, true, term + Character.MAX_VALUE, true).forEach((token, docs) -> {
+            int boost = token.equals(term) ? EXACT_BOOST : PREFIX_BOOST;
+            docs.forEach((id, weight) -> scores.merge(id, weight * boost, Math::max));
+            seen.add(token);
+        });
+
+        for (String token : infixTokens(term)) {
+            if (seen.add(token)) {
+                postings.get(token).forEach((id, weight) -> scores.merge(id, weight * INFIX_BOOST, Math::max));
+            }
+        }
+        return scores;
+    }
+
+    private Set<String> infixTokens(String term) {
+        if (term.length() < NGRAM) {
+            return Set.of();
+        }
+        Set<String> candidates = null;
+        for (String gram : ngrams(term)) {
+            Set<String> tokens = trigrams.get(gram);
+            if (tokens == null) {
+                return Set.of();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(tokens);
+            } else {
+                candidates.retainAll(tokens);
+            }
+        }
+        candidates.removeIf(token -> !token.contains(term));
+        return candidates;
+    }
+
+    private void unindex(Long productId) {
+        Map<String, Integer> previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.keySet()) {
+            Map<Long, Integer> docs = postings.get(token);
+            if (docs == null) {
+                continue;
+            }
+            docs.remove(productId);
+            if (docs.isEmpty()) {
+                postings.remove(token);
+                for (String gram : ngrams(token)) {
+                    Set<String> tokens = trigrams.get(gram);
+                    if (tokens != null) {
+                        tokens.remove(token);
+                        if (tokens.isEmpty()) {
+                            trigrams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> ngrams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + NGRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + NGRAM));
+        }
+        return grams;
+    }
+}
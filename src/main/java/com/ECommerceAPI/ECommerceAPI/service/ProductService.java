@@ -1,24 +1,75 @@
 package com.ECommerceAPI.ECommerceAPI.service;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ECommerceAPI.ECommerceAPI.config.CacheConfig;
+import com.ECommerceAPI.ECommerceAPI.model.CursorPage;
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Service
+@Timed("service.method")
 public class ProductService {
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductPriceIndex priceIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Index hits are loaded in chunks of this many ids
+    private static final int FETCH_CHUNK = 200;
+
+    // Upper bounds of the facet price buckets; a final bucket collects everything above the last one
+    @Value("${catalog.facets.price-buckets:25,50,100,250,500,1000}")
+    private List<BigDecimal> priceBucketBounds;
+
+    public record PriceBucket(BigDecimal from, BigDecimal to, long count) {}
+
+    public record ProductFacets(long total, List<PriceBucket> priceBuckets, long available, long unavailable,
+                                long inStock, long outOfStock) {}
+
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    public CursorPage<Product> getAllProducts(String cursor, Integer size) {
+        return pageById(cursor, size, productRepository::findByIdGreaterThanOrderByIdAsc);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", unless = "#result == null")
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
@@ -40,8 +91,10 @@ public class ProductService {
         if (product.getMinStockLevel() == null) {
             product.setMinStockLevel(5);
         }
-        
-        return productRepository.save(product);
+
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(savedProduct));
+        return savedProduct;
     }
 
     public Optional<Product> updateProduct(Long id, Product productDetails) {
@@ -56,52 +109,269 @@ public class ProductService {
                             if (productDetails.getMinStockLevel() != null) {
                                 existingProduct.setMinStockLevel(productDetails.getMinStockLevel());
                             }
-                            return productRepository.save(existingProduct);
+                            Product savedProduct = productRepository.save(existingProduct);
+                            eventPublisher.publishEvent(ProductChangedEvent.saved(savedProduct));
+                            return savedProduct;
                        });
 
     }
 
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String name) {
         if (name == null || name.trim().isEmpty()) {
             return getAllProducts();
         }
-        return productRepository.findByNameContainingIgnoreCase(name.trim());
+        return searchAll(name.trim(), product -> true);
     }
 
-    public List<Product> filterProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice) {
-        if (minPrice == null && maxPrice == null) {
-            return getAllProducts();
-        }
-        if (minPrice == null) {
-            minPrice = BigDecimal.ZERO;
-        }
-        if (maxPrice == null) {
-            maxPrice = new BigDecimal("999999.99");
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    @Transactional(readOnly = true)
+    public CursorPage<Product> searchProducts(String name, String cursor, Integer size) {
+        if (name == null || name.trim().isEmpty()) {
+            return getAllProducts(cursor, size);
         }
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+        return searchAndFilterProducts(name.trim(), null, null, null, cursor, size);
+    }
+
+    // Either bound may be null for an open-ended range; results are ordered by price
+    @Transactional(readOnly = true)
+    public List<Product> filterProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice) {
+        return priceAll(minPrice, maxPrice, null);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    @Transactional(readOnly = true)
+    public CursorPage<Product> filterProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice, String cursor, Integer size) {
+        return pricePage(minPrice, maxPrice, null, cursor, size);
     }
 
     public List<Product> getAvailableProducts() {
         return productRepository.findByIsAvailableTrue();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    public CursorPage<Product> getAvailableProducts(String cursor, Integer size) {
+        return pageById(cursor, size, productRepository::findByIsAvailableTrueAndIdGreaterThanOrderByIdAsc);
+    }
+
     public List<Product> getUnavailableProducts() {
         return productRepository.findByIsAvailableFalse();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    public CursorPage<Product> getUnavailableProducts(String cursor, Integer size) {
+        return pageById(cursor, size, productRepository::findByIsAvailableFalseAndIdGreaterThanOrderByIdAsc);
+    }
+
     public List<Product> getProductsInStock() {
         return productRepository.findByStockQuantityGreaterThan(0);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    public CursorPage<Product> getProductsInStock(String cursor, Integer size) {
+        return pageById(cursor, size, (afterId, limit) ->
+            productRepository.findByStockQuantityGreaterThanAndIdGreaterThanOrderByIdAsc(0, afterId, limit));
+    }
+
     public List<Product> getOutOfStockProducts() {
         return productRepository.findByStockQuantityLessThanEqual(0);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    public CursorPage<Product> getOutOfStockProducts(String cursor, Integer size) {
+        return pageById(cursor, size, (afterId, limit) ->
+            productRepository.findByStockQuantityLessThanEqualAndIdGreaterThanOrderByIdAsc(0, afterId, limit));
+    }
+
+    @Transactional(readOnly = true)
     public List<Product> searchAndFilterProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available) {
-        return productRepository.findProductsWithFilters(name, minPrice, maxPrice, available);
+        if (name != null && !name.trim().isEmpty()) {
+            return searchAll(name.trim(), filter(minPrice, maxPrice, available));
+        }
+        if (minPrice != null || maxPrice != null) {
+            return priceAll(minPrice, maxPrice, available);
+        }
+        return productRepository.findProductsWithFilters(null, null, available);
+    }
+
+    // Name queries are answered by the search index and ranked by relevance, with a (score, id) cursor.
+    // Price ranges are answered by the price index in price order, with a (price, id) cursor.
+    // Anything else runs as a keyset query ordered by id.
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    @Transactional(readOnly = true)
+    public CursorPage<Product> searchAndFilterProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available,
+                                                       String cursor, Integer size) {
+        if (name != null && !name.trim().isEmpty()) {
+            return searchPage(name.trim(), filter(minPrice, maxPrice, available), cursor, size);
+        }
+        if (minPrice != null || maxPrice != null) {
+            return pricePage(minPrice, maxPrice, available, cursor, size);
+        }
+        return pageById(cursor, size, (afterId, limit) ->
+            productRepository.findProductsWithFiltersAfter(null, null, available, afterId, limit));
+    }
+
+    // Counts are taken in one pass over the in-memory index snapshots of the filtered products
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, keyGenerator = "methodKeyGenerator")
+    public ProductFacets getFacets(String name, BigDecimal minPrice, BigDecimal maxPrice, Boolean available) {
+        validatePriceRange(minPrice, maxPrice);
+        Stream<ProductPriceIndex.Snapshot> snapshots;
+        if (name != null && !name.trim().isEmpty()) {
+            snapshots = searchIndex.search(name.trim()).stream()
+                .map(match -> priceIndex.snapshot(match.productId()))
+                .filter(snapshot -> snapshot != null && inRange(snapshot.entry().price(), minPrice, maxPrice));
+        } else {
+            snapshots = priceIndex.range(minPrice, maxPrice, null).stream()
+                .map(entry -> priceIndex.snapshot(entry.productId()))
+                .filter(Objects::nonNull);
+        }
+
+        long[] bucketCounts = new long[priceBucketBounds.size() + 1];
+        long total = 0;
+        long availableCount = 0;
+        long inStock = 0;
+        Iterator<ProductPriceIndex.Snapshot> iterator = snapshots.iterator();
+        while (iterator.hasNext()) {
+            ProductPriceIndex.Snapshot snapshot = iterator.next();
+            if (available != null && snapshot.available() != available) {
+                continue;
+            }
+            total++;
+            if (snapshot.available()) {
+                availableCount++;
+            }
+            if (snapshot.inStock()) {
+                inStock++;
+            }
+            int bucket = 0;
+            while (bucket < priceBucketBounds.size() && snapshot.entry().price().compareTo(priceBucketBounds.get(bucket)) >= 0) {
+                bucket++;
+            }
+            bucketCounts[bucket]++;
+        }
+
+        List<PriceBucket> buckets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            BigDecimal from = i == 0 ? null : priceBucketBounds.get(i - 1);
+            BigDecimal to = i == priceBucketBounds.size() ? null : priceBucketBounds.get(i);
+            buckets.add(new PriceBucket(from, to, bucketCounts[i]));
+        }
+        return new ProductFacets(total, buckets, availableCount, total - availableCount, inStock, total - inStock);
+    }
+
+    private CursorPage<Product> pageById(String cursor, Integer size, BiFunction<Long, Limit, List<Product>> query) {
+        int pageSize = CursorPage.resolvePageSize(size);
+        long afterId = CursorPage.decodeIdCursor(cursor);
+        List<Product> rows = query.apply(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, product -> CursorPage.encodeCursor(product.getId()));
+    }
+
+    private List<Product> searchAll(String query, Predicate<Product> filter) {
+        Predicate<Product> matching = product -> searchIndex.matches(product, query) && filter.test(product);
+        return hydrate(searchIndex.search(query).iterator(), ProductSearchIndex.Match::productId, matching, Integer.MAX_VALUE)
+            .stream()
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    private CursorPage<Product> searchPage(String query, Predicate<Product> filter, String cursor, Integer size) {
+        int pageSize = CursorPage.resolvePageSize(size);
+        ProductSearchIndex.Match after = cursor == null || cursor.isBlank() ? null : decodeSearchCursor(cursor);
+
+        Predicate<Product> matching = product -> searchIndex.matches(product, query) && filter.test(product);
+        List<Map.Entry<Product, ProductSearchIndex.Match>> rows = hydrate(searchIndex.searchAfter(query, after).iterator(),
+            ProductSearchIndex.Match::productId, matching, pageSize + 1);
+        return toPage(rows, pageSize, match -> CursorPage.encodeCursor(match.score(), match.productId()));
+    }
+
+    private List<Product> priceAll(BigDecimal minPrice, BigDecimal maxPrice, Boolean available) {
+        validatePriceRange(minPrice, maxPrice);
+        return hydrate(priceIndex.range(minPrice, maxPrice, null).iterator(), ProductPriceIndex.Entry::productId,
+                filter(minPrice, maxPrice, available), Integer.MAX_VALUE)
+            .stream()
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    private CursorPage<Product> pricePage(BigDecimal minPrice, BigDecimal maxPrice, Boolean available, String cursor, Integer size) {
+        validatePriceRange(minPrice, maxPrice);
+        int pageSize = CursorPage.resolvePageSize(size);
+        ProductPriceIndex.Entry after = cursor == null || cursor.isBlank() ? null : decodePriceCursor(cursor);
+
+        List<Map.Entry<Product, ProductPriceIndex.Entry>> rows = hydrate(priceIndex.range(minPrice, maxPrice, after).iterator(),
+            ProductPriceIndex.Entry::productId, filter(minPrice, maxPrice, available), pageSize + 1);
+        return toPage(rows, pageSize, entry -> CursorPage.encodeCursor(entry.price().toPlainString(), entry.productId()));
+    }
+
+    // Loads index hits in chunks, preserving index order and skipping ids that no longer exist or no longer match
+    private <K> List<Map.Entry<Product, K>> hydrate(Iterator<K> hits, Function<K, Long> idOf,
+                                                    Predicate<Product> filter, int limit) {
+        List<Map.Entry<Product, K>> rows = new ArrayList<>();
+        List<K> chunk = new ArrayList<>(FETCH_CHUNK);
+        while (hits.hasNext() && rows.size() < limit) {
+            chunk.clear();
+            while (hits.hasNext() && chunk.size() < FETCH_CHUNK) {
+                chunk.add(hits.next());
+            }
+            List<Product> products = loadProducts(chunk.stream().map(idOf).toList());
+            for (int i = 0; i < chunk.size() && rows.size() < limit; i++) {
+                Product product = products.get(i);
+                if (product != null && filter.test(product)) {
+                    rows.add(Map.entry(product, chunk.get(i)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Multi-load consults the persistence context and second-level cache before querying the missing ids
+    private List<Product> loadProducts(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+            .byMultipleIds(Product.class)
+            .multiLoad(ids);
+    }
+
+    private static <K> CursorPage<Product> toPage(List<Map.Entry<Product, K>> rows, int pageSize, Function<K, String> cursorOf) {
+        CursorPage<Map.Entry<Product, K>> page = CursorPage.of(rows, pageSize, row -> cursorOf.apply(row.getValue()));
+        return new CursorPage<>(page.items().stream().map(Map.Entry::getKey).toList(), page.nextCursor(), page.size());
+    }
+
+    private ProductSearchIndex.Match decodeSearchCursor(String cursor) {
+        String[] keys = CursorPage.decodeCursor(cursor, 2);
+        try {
+            return new ProductSearchIndex.Match(Long.parseLong(keys[1]), Integer.parseInt(keys[0]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private ProductPriceIndex.Entry decodePriceCursor(String cursor) {
+        String[] keys = CursorPage.decodeCursor(cursor, 2);
+        try {
+            return new ProductPriceIndex.Entry(new BigDecimal(keys[0]), Long.parseLong(keys[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static void validatePriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice cannot be greater than maxPrice");
+        }
+    }
+
+    private static Predicate<Product> filter(BigDecimal minPrice, BigDecimal maxPrice, Boolean available) {
+        return product -> inRange(product.getPrice(), minPrice, maxPrice)
+            && (available == null || available.equals(product.getIsAvailable()));
+    }
+
+    private static boolean inRange(BigDecimal price, BigDecimal minPrice, BigDecimal maxPrice) {
+        return (minPrice == null || price.compareTo(minPrice) >= 0)
+            && (maxPrice == null || price.compareTo(maxPrice) <= 0);
     }
 }
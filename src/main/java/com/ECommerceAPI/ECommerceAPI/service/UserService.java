@@ -1,15 +1,18 @@
 package com.ECommerceAPI.ECommerceAPI.service;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import com.ECommerceAPI.ECommerceAPI.model.User;
 import com.ECommerceAPI.ECommerceAPI.model.Role;
 import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import com.ECommerceAPI.ECommerceAPI.security.AuthenticationCache;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("service.method")
 public class UserService {
     
     @Autowired
@@ -18,6 +21,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
     public User registerUser(User user) {
         // Input validation
         if (user == null) {
@@ -54,7 +60,9 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
         user.setRole(newRole);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        authenticationCache.evictUser(savedUser.getUsername());
+        return savedUser;
     }
 
     public List<User> getUsersByRole(Role role) {
@@ -66,6 +74,7 @@ public class UserService {
     public User updateUser(Long userId, User userDetails) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        String previousUsername = user.getUsername();
         
         if (userDetails.getUsername() != null) {
             user.setUsername(userDetails.getUsername());
@@ -81,6 +90,10 @@ public class UserService {
             user.setRole(userDetails.getRole());
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Cached tokens carry the old authorities and credentials, so drop them for both names
+        authenticationCache.evictUser(previousUsername);
+        authenticationCache.evictUser(savedUser.getUsername());
+        return savedUser;
     }
 }
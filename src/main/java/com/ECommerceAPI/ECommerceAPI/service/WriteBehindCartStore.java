@@ -0,0 +1,304 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.CartItem;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.CartRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keeps active carts in memory and writes them back in batches. Mutations only touch the in-memory
+// state, so repeated changes to a cart between flushes coalesce into one write of its final contents.
+@Component
+@ConditionalOnProperty(name = "cart.write-behind.enabled", havingValue = "true")
+public class WriteBehindCartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    private final CartRepository cartRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+
+    private final Cache<Long, CartState> carts;
+
+    // Dirty carts pushed out of the cache wait here until the next flush, so a reload never reads stale rows
+    private final Map<Long, CartState> evicted = new ConcurrentHashMap<>();
+
+    public WriteBehindCartStore(CartRepository cartRepository,
+                                UserRepository userRepository,
+                                ProductRepository productRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${cart.write-behind.max-carts:100000}") long maxCarts,
+                                @Value("${cart.write-behind.idle-timeout:30m}") Duration idleTimeout,
+                                @Value("${cart.write-behind.flush-batch-size:200}") int flushBatchSize) {
+        this.cartRepository = cartRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushBatchSize = flushBatchSize;
+        this.carts = Caffeine.newBuilder()
+            .maximumSize(maxCarts)
+            .expireAfterAccess(idleTimeout)
+            .evictionListener((Long userId, CartState state, RemovalCause cause) -> {
+                if (userId != null && state != null && state.isDirty()) {
+                    evicted.put(userId, state);
+                }
+            })
+            .build();
+    }
+
+    public Cart getCart(Long userId) {
+        return state(userId).toCart();
+    }
+
+    public Cart addProduct(Long userId, Product product, int quantity) {
+        return state(userId).add(product, quantity);
+    }
+
+    public Cart removeProduct(Long userId, Long productId, Integer quantity) {
+        return state(userId).remove(productId, quantity);
+    }
+
+    public Cart clear(Long userId) {
+        return state(userId).clear();
+    }
+
+    public Cart removeProducts(Long userId, Map<Long, Integer> quantities) {
+        return state(userId).removeAll(quantities);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval:5s}")
+    public synchronized void flush() {
+        List<CartState> dirty = new ArrayList<>();
+        carts.asMap().values().stream().filter(CartState::isDirty).forEach(dirty::add);
+        evicted.values().stream().filter(state -> !dirty.contains(state)).forEach(dirty::add);
+
+        for (int from = 0; from < dirty.size(); from += flushBatchSize) {
+            List<CartState> batch = dirty.subList(from, Math.min(from + flushBatchSize, dirty.size()));
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                // Retry one by one so a single bad cart cannot hold back the rest of the batch
+                log.warn("Cart flush batch failed, retrying individually", e);
+                for (CartState state : batch) {
+                    try {
+                        writeBatch(List.of(state));
+                    } catch (RuntimeException single) {
+                        log.error("Failed to flush cart for user {}", state.userId, single);
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private CartState state(Long userId) {
+        return carts.get(userId, this::load);
+    }
+
+    private CartState load(Long userId) {
+        CartState pending = evicted.remove(userId);
+        if (pending != null) {
+            return pending;
+        }
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+            CartState state = new CartState(userId, user);
+            cartRepository.findByUserId(userId).ifPresent(state::loadFrom);
+            return state;
+        });
+    }
+
+    private void writeBatch(List<CartState> batch) {
+        List<CartSnapshot> snapshots = batch.stream().map(CartState::snapshot).toList();
+
+        Map<Long, Long> cartIds = transactionTemplate.execute(status -> {
+            List<Long> userIds = snapshots.stream().map(CartSnapshot::userId).toList();
+            Map<Long, Cart> existing = cartRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(cart -> cart.getUser().getId(), Function.identity()));
+
+            Map<Long, Long> savedIds = new HashMap<>();
+            for (CartSnapshot snapshot : snapshots) {
+                Cart cart = existing.get(snapshot.userId());
+                if (cart == null) {
+                    cart = new Cart();
+                    cart.setUser(userRepository.getReferenceById(snapshot.userId()));
+                }
+                applySnapshot(cart, snapshot);
+                savedIds.put(snapshot.userId(), cartRepository.save(cart).getId());
+            }
+            return savedIds;
+        });
+
+        for (int i = 0; i < batch.size(); i++) {
+            CartState state = batch.get(i);
+            if (state.markFlushed(snapshots.get(i).version(), cartIds.get(state.userId))) {
+                evicted.remove(state.userId, state);
+            }
+        }
+    }
+
+    private void applySnapshot(Cart cart, CartSnapshot snapshot) {
+        Map<Long, CartItem> current = cart.getItems().stream()
+            .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity()));
+
+        cart.getItems().removeIf(item -> !snapshot.lines().containsKey(item.getProduct().getId()));
+        snapshot.lines().forEach((productId, line) -> {
+            CartItem item = current.get(productId);
+            if (item == null) {
+                item = new CartItem(cart, productRepository.getReferenceById(productId));
+                cart.getItems().add(item);
+            }
+            item.setQuantity(line.quantity());
+            item.setUnitPrice(line.unitPrice());
+        });
+        cart.setTotalAmount(snapshot.totalAmount());
+        cart.setLastUpdated(snapshot.lastUpdated());
+    }
+
+    private record Line(Product product, int quantity, BigDecimal unitPrice) {
+
+        BigDecimal lineTotal() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    private record CartSnapshot(Long userId, Map<Long, Line> lines, BigDecimal totalAmount,
+                                LocalDateTime lastUpdated, long version) {}
+
+    private static final class CartState {
+
+        private final Long userId;
+        private final User user;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private Long cartId;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private LocalDateTime lastUpdated = LocalDateTime.now();
+        private long version;
+        private long flushedVersion;
+
+        CartState(Long userId, User user) {
+            this.userId = userId;
+            this.user = user;
+        }
+
+        synchronized void loadFrom(Cart cart) {
+            cartId = cart.getId();
+            for (CartItem item : cart.getItems()) {
+                lines.put(item.getProduct().getId(), new Line(item.getProduct(), item.getQuantity(), item.getUnitPrice()));
+            }
+            totalAmount = cart.getTotalAmount();
+            lastUpdated = cart.getLastUpdated();
+        }
+
+        synchronized Cart add(Product product, int quantity) {
+            Line line = lines.get(product.getId());
+            Line updated = line == null
+                ? new Line(product, quantity, product.getPrice())
+                : new Line(line.product(), line.quantity() + quantity, line.unitPrice());
+            lines.put(product.getId(), updated);
+            totalAmount = totalAmount.add(updated.unitPrice().multiply(BigDecimal.valueOf(quantity)));
+            return touch();
+        }
+
+        synchronized Cart remove(Long productId, Integer quantity) {
+            return removeLine(productId, quantity) ? touch() : toCart();
+        }
+
+        synchronized Cart removeAll(Map<Long, Integer> quantities) {
+            boolean changed = false;
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                changed |= removeLine(entry.getKey(), entry.getValue());
+            }
+            return changed ? touch() : toCart();
+        }
+
+        synchronized Cart clear() {
+            lines.clear();
+            totalAmount = BigDecimal.ZERO;
+            return touch();
+        }
+
+        synchronized boolean isDirty() {
+            return version != flushedVersion;
+        }
+
+        synchronized CartSnapshot snapshot() {
+            return new CartSnapshot(userId, new LinkedHashMap<>(lines), totalAmount, lastUpdated, version);
+        }
+
+        synchronized boolean markFlushed(long snapshotVersion, Long savedCartId) {
+            cartId = savedCartId;
+            flushedVersion = Math.max(flushedVersion, snapshotVersion);
+            return !isDirty();
+        }
+
+        synchronized Cart toCart() {
+            Cart cart = new Cart();
+            cart.setId(cartId);
+            cart.setUser(user);
+            for (Line line : lines.values()) {
+                CartItem item = new CartItem(cart, line.product());
+                item.setQuantity(line.quantity());
+                item.setUnitPrice(line.unitPrice());
+                cart.getItems().add(item);
+            }
+            cart.setTotalAmount(totalAmount);
+            cart.setLastUpdated(lastUpdated);
+            return cart;
+        }
+
+        private boolean removeLine(Long productId, Integer quantity) {
+            Line line = lines.get(productId);
+            if (line == null) {
+                return false;
+            }
+            if (quantity == null || quantity >= line.quantity()) {
+                lines.remove(productId);
+                totalAmount = totalAmount.subtract(line.lineTotal());
+            } else {
+                lines.put(productId, new Line(line.product(), line.quantity() - quantity, line.unitPrice()));
+                totalAmount = totalAmount.subtract(line.unitPrice().multiply(BigDecimal.valueOf(quantity)));
+            }
+            return true;
+        }
+
+        private Cart touch() {
+            lastUpdated = LocalDateTime.now();
+            version++;
+            return toCart();
+        }
+    }
+}
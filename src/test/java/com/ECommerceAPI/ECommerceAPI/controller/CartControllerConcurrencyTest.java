@@ -0,0 +1,113 @@
+package com.ECommerceAPI.ECommerceAPI.controller;
+
+import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.CartRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: every request must commit in its own transaction to race on the same cart
+@SpringBootTest
+@ActiveProfiles("test")
+class CartControllerConcurrencyTest {
+
+    private static final int PARALLEL_ADDS = 8;
+
+    @Autowired
+    private CartController cartController;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User testUser;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("cartracer");
+        testUser.setEmail("cartracer@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        testProduct = new Product();
+        testProduct.setName("Raced Product");
+        testProduct.setPrice(new BigDecimal("7.50"));
+        testProduct.setStockQuantity(100);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.findByUserId(testUser.getId()).ifPresent(cartRepository::delete);
+        productRepository.delete(testProduct);
+        userRepository.delete(testUser);
+    }
+
+    @Test
+    void testConcurrentFirstAddsKeepQuantityAndTotalConsistent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_ADDS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> futures = new ArrayList<>();
+
+        // All requests race to create the cart and its first line for the same product
+        for (int i = 0; i < PARALLEL_ADDS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return cartController.addProductToCart(testUser.getId(), testProduct.getId(), 1).getStatusCode();
+            }));
+        }
+
+        start.countDown();
+        int succeeded = 0;
+        for (Future<HttpStatusCode> future : futures) {
+            HttpStatusCode status = future.get(60, TimeUnit.SECONDS);
+            assertTrue(status == HttpStatus.OK || status == HttpStatus.CONFLICT, "Unexpected status " + status);
+            if (status == HttpStatus.OK) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        assertTrue(succeeded > 0);
+        int expectedQuantity = succeeded;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Cart cart = cartRepository.findByUserId(testUser.getId()).orElseThrow();
+            assertEquals(1, cart.getItems().size());
+            assertEquals(expectedQuantity, cart.getItems().get(0).getQuantity());
+            assertEquals(0, new BigDecimal("7.50").multiply(BigDecimal.valueOf(expectedQuantity)).compareTo(cart.getTotalAmount()));
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.ECommerceAPI.ECommerceAPI.gateway;
+
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeRequest;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeResult;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentGatewayClientTest {
+
+    private static final ChargeRequest REQUEST = new ChargeRequest("TXN_TEST", new BigDecimal("10.00"), PaymentMethod.CREDIT_CARD);
+
+    @Test
+    void testTransientErrorsAreRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        PaymentGatewayClient client = client(charging(request -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new PaymentGatewayException("flaky", true);
+            }
+            return new ChargeResult(true, "ok");
+        }), Duration.ofSeconds(1), 5);
+
+        assertTrue(client.charge(REQUEST).approved());
+        assertEquals(3, attempts.get());
+        assertEquals(2, client.getStats().retries());
+    }
+
+    @Test
+    void testDeclineIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        PaymentGatewayClient client = client(charging(request -> {
+            attempts.incrementAndGet();
+            return new ChargeResult(false, "declined");
+        }), Duration.ofSeconds(1), 5);
+
+        assertFalse(client.charge(REQUEST).approved());
+        assertEquals(1, attempts.get());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getStats().circuitState());
+    }
+
+    @Test
+    void testSlowGatewayTimesOut() {
+        SimulatedPaymentGateway hanging = new SimulatedPaymentGateway(Duration.ZERO, 0, 0, 0, 1.0,
+            Duration.ofSeconds(30), Duration.ZERO, Duration.ZERO);
+        PaymentGatewayClient client = client(hanging, Duration.ofMillis(50), 2);
+
+        long started = System.nanoTime();
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class, () -> client.charge(REQUEST));
+
+        assertTrue(e.isRetryable());
+        assertEquals(2, client.getStats().timeouts());
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 5_000);
+    }
+
+    @Test
+    void testCircuitOpensAfterConsecutiveFailuresAndStopsCallingGateway() {
+        AtomicInteger attempts = new AtomicInteger();
+        PaymentGatewayClient client = client(charging(request -> {
+            attempts.incrementAndGet();
+            throw new PaymentGatewayException("down", true);
+        }), Duration.ofSeconds(1), 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(PaymentGatewayException.class, () -> client.charge(REQUEST));
+        }
+        PaymentGatewayException rejected = assertThrows(PaymentGatewayException.class, () -> client.charge(REQUEST));
+
+        assertInstanceOf(CircuitOpenException.class, rejected);
+        assertFalse(rejected.isRetryable());
+        assertFalse(client.isAvailable());
+        assertEquals(3, attempts.get());
+        assertEquals(1, client.getStats().rejected());
+        assertEquals(CircuitBreaker.State.OPEN, client.getStats().circuitState());
+    }
+
+    @Test
+    void testCircuitOpeningBetweenRetriesIsNotReportedAsNeverSent() {
+        AtomicInteger attempts = new AtomicInteger();
+        PaymentGatewayClient client = client(charging(request -> {
+            attempts.incrementAndGet();
+            throw new PaymentGatewayException("down", true);
+        }), Duration.ofSeconds(1), 5);
+
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class, () -> client.charge(REQUEST));
+
+        assertFalse(e instanceof CircuitOpenException);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testLookupReturnsDecisionTakenByCharge() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(Duration.ZERO, 0, 0, 0, 0,
+            Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        PaymentGatewayClient client = client(gateway, Duration.ofSeconds(1), 1);
+
+        assertTrue(client.lookup(REQUEST.transactionId()).isEmpty());
+        ChargeResult charged = client.charge(REQUEST);
+
+        assertEquals(Optional.of(charged), client.lookup(REQUEST.transactionId()));
+    }
+
+    private static PaymentGateway charging(Function<ChargeRequest, ChargeResult> charge) {
+        return new PaymentGateway() {
+            @Override
+            public ChargeResult charge(ChargeRequest request) {
+                return charge.apply(request);
+            }
+
+            @Override
+            public Optional<ChargeResult> lookup(String transactionId) {
+                return Optional.empty();
+            }
+        };
+    }
+
+    private PaymentGatewayClient client(PaymentGateway gateway, Duration timeout, int maxAttempts) {
+        return new PaymentGatewayClient(gateway, timeout, maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5),
+            3, Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ECommerceAPI.ECommerceAPI.security;
+
+import com.ECommerceAPI.ECommerceAPI.model.Role;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs through the real security filter chain with tokens issued for saved users
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class AdminAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void testAdminRoutesRequireAdminRole() throws Exception {
+        mockMvc.perform(get("/api/admin/cache/stats")
+                .header("Authorization", "Bearer " + tokenFor("plaincustomer", Role.CUSTOMER)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/admin/cache/stats")
+                .header("Authorization", "Bearer " + tokenFor("cacheadmin", Role.ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    private String tokenFor(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("hashed-password");
+        user.setRole(role);
+        userRepository.save(user);
+        return jwtUtil.generateToken(userDetailsService.loadUserByUsername(username));
+    }
+}
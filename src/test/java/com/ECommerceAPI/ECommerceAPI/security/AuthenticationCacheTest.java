@@ -0,0 +1,62 @@
+package com.ECommerceAPI.ECommerceAPI.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationCacheTest {
+
+    private AuthenticationCache authenticationCache;
+
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        authenticationCache = new AuthenticationCache(100, 100, Duration.ofMinutes(5));
+        userDetails = new User("testuser", "hashed", List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+    }
+
+    @Test
+    void testTokenIsServedFromCacheUntilUserIsEvicted() {
+        authenticationCache.putToken("token", userDetails, new Date(System.currentTimeMillis() + 60_000));
+
+        assertSame(userDetails, authenticationCache.getByToken("token"));
+
+        authenticationCache.evictUser("testuser");
+
+        assertNull(authenticationCache.getByToken("token"));
+    }
+
+    @Test
+    void testExpiredTokenIsNeverCached() {
+        authenticationCache.putToken("expired", userDetails, new Date(System.currentTimeMillis() - 1_000));
+
+        assertNull(authenticationCache.getByToken("expired"));
+    }
+
+    @Test
+    void testUserDetailsAreLoadedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+
+        authenticationCache.getUser("testuser", username -> {
+            loads.incrementAndGet();
+            return userDetails;
+        });
+        UserDetails cached = authenticationCache.getUser("testuser", username -> {
+            loads.incrementAndGet();
+            return userDetails;
+        });
+
+        assertSame(userDetails, cached);
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,125 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.CartItem;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CartServiceTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User testUser;
+
+    private Product keyboard;
+
+    private Product mouse;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("cartuser");
+        testUser.setEmail("cart@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        keyboard = createProduct("Keyboard", "79.99");
+        mouse = createProduct("Mouse", "25.50");
+    }
+
+    @Test
+    void testAddSameProductTwiceIncreasesQuantity() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 1);
+        Cart cart = cartService.addProductToCart(testUser.getId(), keyboard.getId(), 2);
+        cartService.addProductToCart(testUser.getId(), mouse.getId(), 1);
+
+        assertEquals(new BigDecimal("265.47"), cart.getTotalAmount());
+
+        Cart reloaded = reloadCart();
+        assertEquals(2, reloaded.getItems().size());
+        CartItem keyboardLine = reloaded.getItems().get(0);
+        assertEquals(3, keyboardLine.getQuantity());
+        assertEquals(new BigDecimal("239.97"), keyboardLine.getLineTotal());
+        assertEquals(new BigDecimal("265.47"), reloaded.getTotalAmount());
+    }
+
+    @Test
+    void testCapturedPriceSurvivesPriceChange() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 1);
+        keyboard.setPrice(new BigDecimal("99.99"));
+        productRepository.save(keyboard);
+
+        Cart cart = cartService.addProductToCart(testUser.getId(), keyboard.getId(), 1);
+
+        assertEquals(new BigDecimal("159.98"), cart.getTotalAmount());
+    }
+
+    @Test
+    void testRemoveProductReducesQuantityThenLine() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 3);
+
+        Cart cart = cartService.removeProductFromCart(testUser.getId(), keyboard.getId(), 1);
+        assertEquals(new BigDecimal("159.98"), cart.getTotalAmount());
+
+        cart = cartService.removeProductFromCart(testUser.getId(), keyboard.getId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(cart.getTotalAmount()));
+        assertTrue(reloadCart().getItems().isEmpty());
+    }
+
+    @Test
+    void testClearCart() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 2);
+        cartService.addProductToCart(testUser.getId(), mouse.getId(), 1);
+
+        Cart cart = cartService.clearCart(testUser.getId());
+
+        assertEquals(BigDecimal.ZERO, cart.getTotalAmount());
+        assertTrue(reloadCart().getItems().isEmpty());
+    }
+
+    @Test
+    void testAddWithInvalidQuantityFails() {
+        assertThrows(IllegalArgumentException.class,
+            () -> cartService.addProductToCart(testUser.getId(), keyboard.getId(), 0));
+    }
+
+    private Cart reloadCart() {
+        entityManager.flush();
+        entityManager.clear();
+        return cartService.getCartByUserId(testUser.getId()).orElseThrow();
+    }
+
+    private Product createProduct(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(10);
+        return productRepository.save(product);
+    }
+}
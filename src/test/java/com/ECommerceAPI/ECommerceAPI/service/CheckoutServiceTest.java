@@ -0,0 +1,173 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import com.ECommerceAPI.ECommerceAPI.service.CheckoutService.CheckoutResult;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CheckoutServiceTest {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User testUser;
+
+    private Product keyboard;
+
+    private Product mouse;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("checkoutuser");
+        testUser.setEmail("checkout@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        keyboard = createProduct("Keyboard", "79.99", 10);
+        mouse = createProduct("Mouse", "25.50", 10);
+    }
+
+    @Test
+    void testCheckoutCreatesOrderAndPaymentAndEmptiesCart() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 2);
+        cartService.addProductToCart(testUser.getId(), mouse.getId(), 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        CheckoutResult result = checkoutService.checkout(testUser.getId(), PaymentMethod.CREDIT_CARD, null);
+
+        assertNotNull(result.order().getId());
+        assertEquals(OrderStatus.PENDING, result.order().getStatus());
+        assertEquals(new BigDecimal("185.48"), result.order().getTotalAmount());
+        assertEquals(PaymentStatus.PENDING, result.payment().getStatus());
+        assertEquals(result.order().getTotalAmount(), result.payment().getAmount());
+
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(cartService.getCartByUserId(testUser.getId()).orElseThrow().getItems().isEmpty());
+        assertEquals(8, productRepository.findById(keyboard.getId()).orElseThrow().getStockQuantity());
+        assertEquals(9, productRepository.findById(mouse.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testCheckoutChargesPriceCapturedInCart() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        Product repriced = productRepository.findById(keyboard.getId()).orElseThrow();
+        repriced.setPrice(new BigDecimal("99.99"));
+        productRepository.saveAndFlush(repriced);
+        entityManager.clear();
+
+        CheckoutResult result = checkoutService.checkout(testUser.getId(), PaymentMethod.CREDIT_CARD, null);
+
+        assertEquals(new BigDecimal("79.99"), result.order().getItems().get(0).getUnitPrice());
+        assertEquals(new BigDecimal("159.98"), result.order().getTotalAmount());
+        assertEquals(new BigDecimal("159.98"), result.payment().getAmount());
+    }
+
+    @Test
+    void testCheckoutStatementsDoNotGrowWithCartSize() {
+        long smallCart = countCheckoutStatements(2);
+        long largeCart = countCheckoutStatements(8);
+
+        assertEquals(smallCart, largeCart);
+    }
+
+    @Test
+    void testCheckoutWithIdempotencyKeyReplaysFirstResult() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 1);
+
+        CheckoutResult first = checkoutService.checkout(testUser.getId(), null, "checkout-key-1");
+        CheckoutResult replay = checkoutService.checkout(testUser.getId(), null, "checkout-key-1");
+
+        assertEquals(first.order().getId(), replay.order().getId());
+        assertNull(replay.payment());
+        entityManager.clear();
+        assertEquals(9, productRepository.findById(keyboard.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testCheckoutWithInsufficientStockFails() {
+        cartService.addProductToCart(testUser.getId(), keyboard.getId(), 11);
+
+        assertThrows(InsufficientStockException.class,
+            () -> checkoutService.checkout(testUser.getId(), null, null));
+
+        entityManager.clear();
+        assertEquals(10, productRepository.findById(keyboard.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testCheckoutEmptyCartFails() {
+        cartService.getOrCreateCart(testUser.getId());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> checkoutService.checkout(testUser.getId(), null, null));
+    }
+
+    // Fills a fresh cart with the given number of products and counts the statements its checkout prepares
+    private long countCheckoutStatements(int products) {
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            catalog.add(createProduct("Item " + products + "-" + i, "5.00", 10));
+        }
+        catalog.forEach(product -> cartService.addProductToCart(testUser.getId(), product.getId(), 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        checkoutService.checkout(testUser.getId(), PaymentMethod.PAYPAL, null);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Product createProduct(String name, String price, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+}
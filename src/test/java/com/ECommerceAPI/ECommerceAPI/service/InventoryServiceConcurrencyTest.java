@@ -0,0 +1,135 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: every decrement must commit in its own transaction to exercise real row contention
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryServiceConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int PARALLEL_DECREMENTS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+
+        testProduct = new Product();
+        testProduct.setName("Contended Product");
+        testProduct.setPrice(new BigDecimal("19.99"));
+        testProduct.setStockQuantity(INITIAL_STOCK);
+        testProduct.setMinStockLevel(10);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testParallelReduceStockNeverOversells() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < PARALLEL_DECREMENTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reduceStock(testProduct.getId(), 1);
+                    succeeded.incrementAndGet();
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Product product = productRepository.findById(testProduct.getId()).orElseThrow();
+        assertEquals(INITIAL_STOCK, succeeded.get());
+        assertEquals(PARALLEL_DECREMENTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, product.getStockQuantity());
+        assertFalse(product.getIsAvailable());
+    }
+
+    @Test
+    void testParallelAddAndReduceStockKeepsCountConsistent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < PARALLEL_DECREMENTS; i++) {
+            boolean add = i % 2 == 0;
+            futures.add(executor.submit(() -> add
+                ? inventoryService.addStock(testProduct.getId(), 2)
+                : inventoryService.reduceStock(testProduct.getId(), 1)));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Product product = productRepository.findById(testProduct.getId()).orElseThrow();
+        assertEquals(INITIAL_STOCK + PARALLEL_DECREMENTS / 2, product.getStockQuantity());
+        assertTrue(product.getIsAvailable());
+    }
+
+    @Test
+    void testBulkAdjustmentsDoNotLoseConcurrentReductions() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Bulk deltas write back absolute quantities; without row locks they would overwrite these decrements
+        for (int i = 0; i < PARALLEL_DECREMENTS; i++) {
+            boolean bulk = i % 2 == 0;
+            futures.add(executor.submit(() -> bulk
+                ? inventoryService.bulkAdjustStock(List.of(new InventoryService.StockAdjustment(testProduct.getId(), 2, null)))
+                : inventoryService.reduceStock(testProduct.getId(), 1)));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Product product = productRepository.findById(testProduct.getId()).orElseThrow();
+        assertEquals(INITIAL_STOCK + PARALLEL_DECREMENTS / 2, product.getStockQuantity());
+    }
+}
@@ -2,6 +2,9 @@ package com.ECommerceAPI.ECommerceAPI.service;
 
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.service.InventoryService.AdjustmentStatus;
+import com.ECommerceAPI.ECommerceAPI.service.InventoryService.StockAdjustment;
+import com.ECommerceAPI.ECommerceAPI.service.InventoryService.StockAdjustmentResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +46,16 @@ class InventoryServiceTest {
         testProduct = productRepository.save(testProduct);
     }
 
+    @Test
+    void testNonPositiveQuantitiesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.reduceStock(testProduct.getId(), -5));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.reduceStock(testProduct.getId(), 0));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.addStock(testProduct.getId(), -5));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.addStock(testProduct.getId(), null));
+
+        assertEquals(100, productRepository.findById(testProduct.getId()).orElseThrow().getStockQuantity());
+    }
+
     @Test
     void testAddStock() {
         int initialStock = testProduct.getStockQuantity();
@@ -75,6 +88,17 @@ class InventoryServiceTest {
         assertFalse(updatedProduct.getIsAvailable());
     }
 
+    @Test
+    void testReduceStockBeyondAvailableFails() {
+        int initialStock = testProduct.getStockQuantity();
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> inventoryService.reduceStock(testProduct.getId(), initialStock + 1));
+
+        assertTrue(exception.getMessage().startsWith("Insufficient stock"));
+        assertEquals(initialStock, productRepository.findById(testProduct.getId()).orElseThrow().getStockQuantity());
+    }
+
     @Test
     void testUpdateStock() {
         int newStock = 200;
@@ -126,6 +150,26 @@ class InventoryServiceTest {
         assertTrue(availableProducts.get(0).getIsAvailable());
     }
 
+    @Test
+    void testBulkAdjustStock() {
+        List<StockAdjustmentResult> results = inventoryService.bulkAdjustStock(List.of(
+            new StockAdjustment(testProduct.getId(), 20, null),
+            new StockAdjustment(testProduct.getId(), -500, null),
+            new StockAdjustment(testProduct.getId(), null, 75),
+            new StockAdjustment(-1L, 5, null),
+            new StockAdjustment(testProduct.getId(), 5, 5)
+        ));
+
+        assertEquals(5, results.size());
+        assertEquals(AdjustmentStatus.UPDATED, results.get(0).status());
+        assertEquals(120, results.get(0).stockQuantity());
+        assertEquals(AdjustmentStatus.INSUFFICIENT_STOCK, results.get(1).status());
+        assertEquals(AdjustmentStatus.UPDATED, results.get(2).status());
+        assertEquals(AdjustmentStatus.NOT_FOUND, results.get(3).status());
+        assertEquals(AdjustmentStatus.INVALID, results.get(4).status());
+        assertEquals(75, productRepository.findById(testProduct.getId()).orElseThrow().getStockQuantity());
+    }
+
     @Test
     void testCheckStockAvailability() {
         // Test with sufficient stock
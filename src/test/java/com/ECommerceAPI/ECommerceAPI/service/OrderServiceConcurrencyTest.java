@@ -0,0 +1,159 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.OrderRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: every order must commit in its own transaction to exercise real row contention
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderServiceConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 50;
+    private static final int PARALLEL_ORDERS = 300;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("concurrentbuyer");
+        testUser.setEmail("concurrent@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        products = List.of(createProduct("Left"), createProduct("Shared"), createProduct("Right"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll(orderRepository.findByUser(testUser));
+        productRepository.deleteAll(products);
+        userRepository.delete(testUser);
+    }
+
+    @Test
+    void testParallelOrdersNeverOversellSharedProduct() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger leftOrders = new AtomicInteger();
+        AtomicInteger rightOrders = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Every order takes the shared product, so exactly INITIAL_STOCK of them can succeed
+        for (int i = 0; i < PARALLEL_ORDERS; i++) {
+            boolean left = i % 2 == 0;
+            Product other = left ? products.get(0) : products.get(2);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.createOrder(testUser.getId(), Set.of(products.get(1).getId(), other.getId()));
+                    (left ? leftOrders : rightOrders).incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        executor.shutdown();
+
+        // Rejections hold the same row locks as placed orders, so both count towards the attempt rate
+        System.out.printf("createOrder: %d attempts on %d threads in %.3f s, %.1f attempts/s, %.1f placed orders/s%n",
+            PARALLEL_ORDERS, THREADS, seconds, PARALLEL_ORDERS / seconds, (leftOrders.get() + rightOrders.get()) / seconds);
+
+        assertEquals(INITIAL_STOCK, leftOrders.get() + rightOrders.get());
+        assertEquals(PARALLEL_ORDERS - INITIAL_STOCK, rejected.get());
+        assertEquals(INITIAL_STOCK, orderRepository.findByUser(testUser).size());
+        assertEquals(INITIAL_STOCK - leftOrders.get(), stockOf(products.get(0)));
+        assertEquals(0, stockOf(products.get(1)));
+        assertEquals(INITIAL_STOCK - rightOrders.get(), stockOf(products.get(2)));
+    }
+
+    @Test
+    void testParallelRetriesWithSameIdempotencyKeyCreateOneOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> productIds = Set.of(products.get(0).getId());
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.createOrder(testUser.getId(), productIds, "checkout-attempt-1");
+                } catch (RuntimeException e) {
+                    // Losers of the unique-key race roll back; the controller replays the winner's order
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Order> orders = orderRepository.findByUser(testUser);
+        assertEquals(1, orders.size());
+        assertEquals(INITIAL_STOCK - 1, stockOf(products.get(0)));
+        assertEquals(orders.get(0).getId(), orderService.createOrder(testUser.getId(), productIds, "checkout-attempt-1").getId());
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+
+    private Product createProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(INITIAL_STOCK);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,244 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.CursorPage;
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.OrderItem;
+import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OrderServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User testUser;
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("orderuser");
+        testUser.setEmail("order@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        products = List.of(
+            createProduct("Monitor", "199.99"),
+            createProduct("Cable", "9.99"),
+            createProduct("Stand", "49.99")
+        );
+    }
+
+    @Test
+    void testCreateOrder() {
+        Order order = orderService.createOrder(testUser.getId(), Set.of(products.get(0).getId(), products.get(1).getId()));
+
+        assertNotNull(order.getId());
+        assertEquals(new BigDecimal("209.98"), order.getTotalAmount());
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+    }
+
+    @Test
+    void testCreateOrderReservesStock() {
+        orderService.createOrder(testUser.getId(), Set.of(products.get(0).getId(), products.get(1).getId()));
+
+        entityManager.clear();
+        assertEquals(999, productRepository.findById(products.get(0).getId()).orElseThrow().getStockQuantity());
+        assertEquals(999, productRepository.findById(products.get(1).getId()).orElseThrow().getStockQuantity());
+        assertEquals(1000, productRepository.findById(products.get(2).getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testCreateOrderWithInsufficientStockReservesNothing() {
+        Product scarce = createProduct("Scarce", "5.00");
+        scarce.setStockQuantity(0);
+        productRepository.save(scarce);
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+            () -> orderService.createOrder(testUser.getId(), Set.of(products.get(0).getId(), scarce.getId())));
+
+        assertEquals(1, e.getShortages().size());
+        assertEquals(scarce.getId(), e.getShortages().get(0).productId());
+        assertEquals(0, e.getShortages().get(0).available());
+        entityManager.clear();
+        assertEquals(1000, productRepository.findById(products.get(0).getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testCreateOrderWithIdempotencyKeyReplaysFirstOrder() {
+        Set<Long> productIds = Set.of(products.get(0).getId());
+        Order first = orderService.createOrder(testUser.getId(), productIds, "retry-key-1");
+        Order replay = orderService.createOrder(testUser.getId(), productIds, "retry-key-1");
+
+        assertEquals(first.getId(), replay.getId());
+        entityManager.clear();
+        assertEquals(999, productRepository.findById(products.get(0).getId()).orElseThrow().getStockQuantity());
+        assertThrows(IllegalArgumentException.class,
+            () -> orderService.createOrder(testUser.getId(), Set.of(products.get(1).getId()), "retry-key-1"));
+    }
+
+    @Test
+    void testListingOrdersForUserIssuesConstantStatements() {
+        createOrders(2);
+        long fewOrders = countStatements(() -> orderService.getOrdersForUser(testUser.getId()));
+
+        createOrders(10);
+        long manyOrders = countStatements(() -> orderService.getOrdersForUser(testUser.getId()));
+
+        assertEquals(fewOrders, manyOrders);
+    }
+
+    @Test
+    void testOrderHistoryKeepsCapturedItemsWithoutReadingCatalog() {
+        orderService.createOrder(testUser.getId(), Set.of(products.get(0).getId(), products.get(1).getId()));
+        Product monitor = products.get(0);
+        monitor.setName("Monitor (new model)");
+        monitor.setPrice(new BigDecimal("299.99"));
+        productRepository.save(monitor);
+
+        long statements = countStatements(() -> orderService.getOrdersForUser(testUser.getId()));
+        assertEquals(1, statements);
+
+        Order order = orderService.getOrdersForUser(testUser.getId()).get(0);
+        assertEquals(2, order.getItems().size());
+        OrderItem monitorItem = order.getItems().stream()
+            .filter(item -> item.getProductId().equals(monitor.getId()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("Monitor", monitorItem.getProductName());
+        assertEquals(new BigDecimal("199.99"), monitorItem.getUnitPrice());
+        assertEquals(new BigDecimal("209.98"), order.getTotalAmount());
+    }
+
+    @Test
+    void testListingOrdersByStatusIssuesConstantStatements() {
+        createOrders(2);
+        long fewOrders = countStatements(() -> orderService.getOrdersByStatus(OrderStatus.PENDING));
+
+        createOrders(10);
+        long manyOrders = countStatements(() -> orderService.getOrdersByStatus(OrderStatus.PENDING));
+
+        assertEquals(fewOrders, manyOrders);
+    }
+
+    @Test
+    void testGetOrdersByStatusPaginatedNewestFirst() {
+        createOrders(5);
+        orderService.updateOrderStatus(orderService.getOrdersForUser(testUser.getId()).get(0).getId(), OrderStatus.SHIPPED);
+
+        List<Order> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Order> page = orderService.getOrdersByStatus(OrderStatus.PENDING, cursor, 2);
+            assertTrue(page.items().size() <= 2);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(4, seen.size());
+        assertTrue(seen.stream().allMatch(order -> order.getStatus() == OrderStatus.PENDING));
+        for (int i = 1; i < seen.size(); i++) {
+            Order newer = seen.get(i - 1);
+            Order older = seen.get(i);
+            assertTrue(newer.getOrderDate().isAfter(older.getOrderDate())
+                || (newer.getOrderDate().isEqual(older.getOrderDate()) && newer.getId() > older.getId()));
+        }
+    }
+
+    @Test
+    void testExportOrdersStreamsNdjsonAndCsvWithinRange() throws Exception {
+        createOrders(3);
+        entityManager.flush();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long exported = orderService.exportOrders(new ExportRange(null, null), OrderStatus.PENDING, ExportFormat.NDJSON, ndjson);
+        String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"userId\":" + testUser.getId()));
+        assertTrue(lines[0].contains("\"status\":\"PENDING\""));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        orderService.exportOrders(new ExportRange(LocalDateTime.now().minusHours(1), null), null, ExportFormat.CSV, csv);
+        String[] rows = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,userId,status,totalAmount,orderDate,statusUpdatedAt,trackingNumber", rows[0]);
+        assertEquals(4, rows.length);
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        assertEquals(0, orderService.exportOrders(new ExportRange(LocalDateTime.now().plusDays(1), null), null, ExportFormat.NDJSON, empty));
+        assertEquals(0, empty.size());
+    }
+
+    // Counts every statement needed to list the orders and walk their users and items
+    private long countStatements(Supplier<List<Order>> listing) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Order> orders = listing.get();
+        orders.forEach(order -> {
+            order.getUser().getUsername();
+            order.getItems().forEach(OrderItem::getProductName);
+        });
+
+        assertFalse(orders.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            Product first = products.get(i % products.size());
+            Product second = products.get((i + 1) % products.size());
+            orderService.createOrder(testUser.getId(), Set.of(first.getId(), second.getId()));
+        }
+    }
+
+    private Product createProduct(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(1000);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeRequest;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeResult;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGatewayClient;
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Payment;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import com.ECommerceAPI.ECommerceAPI.service.PaymentReconciler.ReconciliationRun;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PaymentReconcilerTest {
+
+    @Autowired
+    private PaymentReconciler paymentReconciler;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User testUser;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("reconcileuser");
+        testUser.setEmail("reconcile@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        testProduct = new Product();
+        testProduct.setName("Reconciled Product");
+        testProduct.setPrice(new BigDecimal("15.00"));
+        testProduct.setStockQuantity(10);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @Test
+    void testStalePaymentsAreSettledFromGatewayDecision() {
+        Payment charged = processingPayment(LocalDateTime.now().minusMinutes(30));
+        ChargeResult decision = paymentGatewayClient.charge(
+            new ChargeRequest(charged.getTransactionId(), charged.getAmount(), charged.getPaymentMethod()));
+        Payment neverSent = processingPayment(LocalDateTime.now().minusMinutes(30));
+        Payment inFlight = processingPayment(LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        ReconciliationRun run = paymentReconciler.reconcile();
+
+        assertEquals(2, run.backlog());
+        assertEquals(2, run.examined());
+        assertEquals(1, run.requeued());
+        assertEquals(1, run.completed() + run.failed());
+        entityManager.flush();
+        entityManager.clear();
+
+        Payment settled = paymentRepository.findById(charged.getId()).orElseThrow();
+        assertEquals(decision.approved() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED, settled.getStatus());
+        assertEquals(decision.approved() ? OrderStatus.CONFIRMED : OrderStatus.PENDING, settled.getOrder().getStatus());
+        assertEquals(PaymentStatus.PENDING, paymentRepository.findById(neverSent.getId()).orElseThrow().getStatus());
+        assertEquals(PaymentStatus.PROCESSING, paymentRepository.findById(inFlight.getId()).orElseThrow().getStatus());
+        assertEquals(0, paymentReconciler.getBacklog());
+    }
+
+    private Payment processingPayment(LocalDateTime statusUpdatedAt) {
+        Order order = orderService.createOrder(testUser.getId(), Set.of(testProduct.getId()));
+        Payment payment = paymentService.createPayment(order.getId(), PaymentMethod.CREDIT_CARD);
+        payment.setStatus(PaymentStatus.PROCESSING);
+        payment.setStatusUpdatedAt(statusUpdatedAt);
+        return paymentRepository.save(payment);
+    }
+}
@@ -0,0 +1,154 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeResult;
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Payment;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.OrderRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import com.ECommerceAPI.ECommerceAPI.service.PaymentService.PaymentStatusView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the gateway call completes on another thread in its own transaction
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentServiceTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+
+    private Product testProduct;
+
+    private Order testOrder;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("paymentuser");
+        testUser.setEmail("payment@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        testProduct = new Product();
+        testProduct.setName("Paid Product");
+        testProduct.setPrice(new BigDecimal("42.00"));
+        testProduct.setStockQuantity(10);
+        testProduct = productRepository.save(testProduct);
+
+        testOrder = orderService.createOrder(testUser.getId(), Set.of(testProduct.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.findByOrderId(testOrder.getId()).ifPresent(paymentRepository::delete);
+        orderRepository.deleteById(testOrder.getId());
+        productRepository.delete(testProduct);
+        userRepository.delete(testUser);
+    }
+
+    @Test
+    void testProcessPaymentReturnsBeforeGatewayAndSettlesAsynchronously() throws InterruptedException {
+        Payment payment = paymentService.createPayment(testOrder.getId(), PaymentMethod.CREDIT_CARD);
+
+        Payment accepted = paymentService.processPayment(payment.getId());
+        assertEquals(PaymentStatus.PROCESSING, accepted.getStatus());
+
+        PaymentStatusView settled = awaitSettled(payment.getId());
+        assertTrue(settled.status() == PaymentStatus.COMPLETED || settled.status() == PaymentStatus.FAILED);
+        assertNotNull(settled.processedAt());
+        OrderStatus expectedOrderStatus = settled.status() == PaymentStatus.COMPLETED ? OrderStatus.CONFIRMED : OrderStatus.PENDING;
+        assertEquals(expectedOrderStatus, orderRepository.findById(testOrder.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testProcessPaymentTwiceIsRejected() throws InterruptedException {
+        Payment payment = paymentService.createPayment(testOrder.getId(), PaymentMethod.PAYPAL);
+        paymentService.processPayment(payment.getId());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> paymentService.processPayment(payment.getId()));
+        assertEquals("Payment is not in pending status", e.getMessage());
+        awaitSettled(payment.getId());
+    }
+
+    @Test
+    void testSecondDecisionForSettledPaymentIsIgnored() {
+        Payment payment = paymentService.createPayment(testOrder.getId(), PaymentMethod.CREDIT_CARD);
+        payment.setStatus(PaymentStatus.PROCESSING);
+        paymentRepository.save(payment);
+
+        List<Payment> declined = paymentService.settleStuckPayments(
+            Map.of(payment.getId(), Optional.of(new ChargeResult(false, "Card declined"))));
+        List<Payment> lateApproval = paymentService.settleStuckPayments(
+            Map.of(payment.getId(), Optional.of(new ChargeResult(true, "Approved"))));
+
+        assertEquals(1, declined.size());
+        assertTrue(lateApproval.isEmpty());
+        PaymentStatusView status = paymentService.getPaymentStatus(payment.getId()).orElseThrow();
+        assertEquals(PaymentStatus.FAILED, status.status());
+        assertEquals("Card declined", status.failureReason());
+        assertNotNull(status.processedAt());
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(testOrder.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testExportPaymentsAsCsv() throws Exception {
+        Payment payment = paymentService.createPayment(testOrder.getId(), PaymentMethod.BANK_TRANSFER);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long exported = paymentService.exportPayments(new ExportRange(null, null), PaymentStatus.PENDING, ExportFormat.CSV, csv);
+
+        String[] rows = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(1, exported);
+        assertTrue(rows[0].startsWith("id,orderId,status,paymentMethod,amount,transactionId"));
+        assertTrue(rows[1].startsWith(payment.getId() + "," + testOrder.getId() + ",PENDING,BANK_TRANSFER,42.00," + payment.getTransactionId()));
+    }
+
+    private PaymentStatusView awaitSettled(Long paymentId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        PaymentStatusView status = paymentService.getPaymentStatus(paymentId).orElseThrow();
+        while (status.status() == PaymentStatus.PROCESSING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = paymentService.getPaymentStatus(paymentId).orElseThrow();
+        }
+        assertNotEquals(PaymentStatus.PROCESSING, status.status());
+        return status;
+    }
+}
@@ -0,0 +1,154 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeRequest;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGateway.ChargeResult;
+import com.ECommerceAPI.ECommerceAPI.gateway.PaymentGatewayException;
+import com.ECommerceAPI.ECommerceAPI.model.Order;
+import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Payment;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentMethod;
+import com.ECommerceAPI.ECommerceAPI.model.PaymentStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.OrderRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.PaymentRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import com.ECommerceAPI.ECommerceAPI.service.PaymentReconciler.ReconciliationRun;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the gateway call completes on another thread in its own transaction
+@SpringBootTest(properties = {
+    "payment.gateway.timeout=100ms",
+    "payment.gateway.retry.max-attempts=1",
+    "payment.reconciliation.stale-after=0s"
+})
+@ActiveProfiles("test")
+class PaymentTimeoutTest {
+
+    // Approves every charge but answers only after the client has given up waiting
+    @TestConfiguration
+    static class SlowApprovingGatewayConfig {
+
+        @Bean
+        @Primary
+        PaymentGateway slowApprovingGateway() {
+            Map<String, ChargeResult> decisions = new ConcurrentHashMap<>();
+            return new PaymentGateway() {
+                @Override
+                public ChargeResult charge(ChargeRequest request) {
+                    decisions.put(request.transactionId(), new ChargeResult(true, "Approved after the caller timed out"));
+                    try {
+                        Thread.sleep(5_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new PaymentGatewayException("Gateway call interrupted", e, true);
+                    }
+                    return decisions.get(request.transactionId());
+                }
+
+                @Override
+                public Optional<ChargeResult> lookup(String transactionId) {
+                    return Optional.ofNullable(decisions.get(transactionId));
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private PaymentReconciler paymentReconciler;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+
+    private Product testProduct;
+
+    private Order testOrder;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("timeoutuser");
+        testUser.setEmail("timeout@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        testProduct = new Product();
+        testProduct.setName("Slowly Paid Product");
+        testProduct.setPrice(new BigDecimal("18.00"));
+        testProduct.setStockQuantity(10);
+        testProduct = productRepository.save(testProduct);
+
+        testOrder = orderService.createOrder(testUser.getId(), Set.of(testProduct.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.findByOrderId(testOrder.getId()).ifPresent(paymentRepository::delete);
+        orderRepository.deleteById(testOrder.getId());
+        productRepository.delete(testProduct);
+        userRepository.delete(testUser);
+    }
+
+    @Test
+    void testTimedOutChargeThatWasApprovedIsCompletedByReconciliation() throws InterruptedException {
+        Payment payment = paymentService.createPayment(testOrder.getId(), PaymentMethod.CREDIT_CARD);
+
+        paymentService.processPayment(payment.getId());
+        awaitIdle();
+
+        // The timeout is not a decline: the gateway did take the charge, so the payment must not be FAILED
+        assertEquals(PaymentStatus.PROCESSING, paymentService.getPaymentStatus(payment.getId()).orElseThrow().status());
+
+        ReconciliationRun run = paymentReconciler.reconcile();
+
+        assertEquals(1, run.completed());
+        assertEquals(PaymentStatus.COMPLETED, paymentService.getPaymentStatus(payment.getId()).orElseThrow().status());
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findById(testOrder.getId()).orElseThrow().getStatus());
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (paymentProcessor.inFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, paymentProcessor.inFlight());
+    }
+}
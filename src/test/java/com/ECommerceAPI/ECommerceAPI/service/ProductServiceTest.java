@@ -1,12 +1,17 @@
 package com.ECommerceAPI.ECommerceAPI.service;
 
+import com.ECommerceAPI.ECommerceAPI.model.CursorPage;
 import com.ECommerceAPI.ECommerceAPI.model.Product;
 import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -26,6 +31,12 @@ class ProductServiceTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Product testProduct;
 
     @BeforeEach
@@ -152,4 +163,218 @@ class ProductServiceTest {
         assertEquals(1, availableProducts.size());
         assertEquals("Test Product", availableProducts.get(0).getName());
     }
+
+    @Test
+    void testGetAllProductsPaginated() {
+        for (int i = 1; i <= 5; i++) {
+            Product product = new Product();
+            product.setName("Paged Product " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(i);
+            productService.createProduct(product);
+        }
+
+        CursorPage<Product> firstPage = productService.getAllProducts(null, 2);
+        assertEquals(2, firstPage.items().size());
+        assertNotNull(firstPage.nextCursor());
+
+        CursorPage<Product> secondPage = productService.getAllProducts(firstPage.nextCursor(), 2);
+        assertEquals(2, secondPage.items().size());
+        assertTrue(secondPage.items().get(0).getId() > firstPage.items().get(1).getId());
+
+        CursorPage<Product> lastPage = productService.getAllProducts(secondPage.nextCursor(), 2);
+        assertEquals(1, lastPage.items().size());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    void testSearchProductsPaginatedRejectsInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> productService.searchProducts("Test", "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> productService.getAllProducts(null, 0));
+    }
+
+    @Test
+    void testSearchProductsMatchesPrefixesAndInfixesRankedByRelevance() {
+        Product keyboard = new Product();
+        keyboard.setName("Mechanical Keyboard");
+        keyboard.setDescription("Keyboard with a laptop travel case");
+        keyboard.setPrice(new BigDecimal("89.99"));
+        productService.createProduct(keyboard);
+
+        Product laptop = new Product();
+        laptop.setName("Gaming Laptop");
+        laptop.setDescription("Fast laptop for gaming");
+        laptop.setPrice(new BigDecimal("1499.99"));
+        productService.createProduct(laptop);
+
+        // Name hits outrank description-only hits
+        List<Product> results = productService.searchProducts("laptop");
+        assertEquals(List.of("Gaming Laptop", "Mechanical Keyboard"), results.stream().map(Product::getName).toList());
+
+        assertEquals(1, productService.searchProducts("mecha").size());
+        assertEquals(1, productService.searchProducts("chanic").size());
+        assertEquals(1, productService.searchProducts("gaming lap").size());
+        assertTrue(productService.searchProducts("gaming keyboard").isEmpty());
+
+        List<Product> filtered = productService.searchAndFilterProducts("laptop", null, new BigDecimal("100.00"), null);
+        assertEquals(1, filtered.size());
+        assertEquals("Mechanical Keyboard", filtered.get(0).getName());
+
+        productService.deleteProduct(laptop.getId());
+        assertEquals(1, productService.searchProducts("laptop").size());
+    }
+
+    @Test
+    void testSearchProductsPaginatedByRelevance() {
+        for (int i = 1; i <= 5; i++) {
+            Product product = new Product();
+            product.setName("Searchable Widget " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            productService.createProduct(product);
+        }
+
+        CursorPage<Product> firstPage = productService.searchProducts("widget", null, 3);
+        assertEquals(3, firstPage.items().size());
+        assertNotNull(firstPage.nextCursor());
+
+        // The cursor still seeks to the right place once the match it points at is gone
+        productService.deleteProduct(firstPage.items().get(2).getId());
+
+        CursorPage<Product> secondPage = productService.searchProducts("widget", firstPage.nextCursor(), 3);
+        assertEquals(2, secondPage.items().size());
+        assertNull(secondPage.nextCursor());
+        assertTrue(secondPage.items().get(0).getId() > firstPage.items().get(2).getId());
+    }
+
+    @Test
+    void testProductReadsAreCachedAndInvalidatedOnChange() {
+        Product savedProduct = productService.createProduct(testProduct);
+
+        Product first = productService.getProductById(savedProduct.getId()).orElseThrow();
+        assertSame(first, productService.getProductById(savedProduct.getId()).orElseThrow());
+
+        inventoryService.addStock(savedProduct.getId(), 5);
+        assertEquals(105, productService.getProductById(savedProduct.getId()).orElseThrow().getStockQuantity());
+
+        assertEquals(1, productService.getAvailableProducts(null, 10).items().size());
+        Product another = new Product();
+        another.setName("Another Product");
+        another.setPrice(new BigDecimal("5.00"));
+        productService.createProduct(another);
+        assertEquals(2, productService.getAvailableProducts(null, 10).items().size());
+    }
+
+    @Test
+    void testStockMovementsOnlyClearListingsWhenAvailabilityFlips() {
+        Product savedProduct = productService.createProduct(testProduct);
+
+        CursorPage<Product> listing = productService.getAvailableProducts(null, 10);
+        inventoryService.reduceStock(savedProduct.getId(), 40);
+        assertSame(listing, productService.getAvailableProducts(null, 10));
+        assertEquals(60, productService.getProductById(savedProduct.getId()).orElseThrow().getStockQuantity());
+
+        inventoryService.reduceStock(savedProduct.getId(), 60);
+        assertTrue(productService.getAvailableProducts(null, 10).items().isEmpty());
+    }
+
+    @Test
+    void testFilterProductsByPriceHandlesOpenRangesInPriceOrder() {
+        for (String price : new String[] {"30.00", "10.00", "20.00", "1000000.00"}) {
+            Product product = new Product();
+            product.setName("Priced " + price);
+            product.setPrice(new BigDecimal(price));
+            productService.createProduct(product);
+        }
+
+        List<BigDecimal> prices = productService.filterProductsByPrice(new BigDecimal("15.00"), null).stream()
+            .map(Product::getPrice)
+            .toList();
+        assertEquals(List.of(new BigDecimal("20.00"), new BigDecimal("30.00"), new BigDecimal("1000000.00")), prices);
+
+        assertEquals(2, productService.filterProductsByPrice(null, new BigDecimal("20.00")).size());
+        assertThrows(IllegalArgumentException.class,
+            () -> productService.filterProductsByPrice(new BigDecimal("50.00"), new BigDecimal("10.00")));
+
+        CursorPage<Product> firstPage = productService.filterProductsByPrice(null, null, null, 3);
+        assertEquals(List.of(new BigDecimal("10.00"), new BigDecimal("20.00"), new BigDecimal("30.00")),
+            firstPage.items().stream().map(Product::getPrice).toList());
+        CursorPage<Product> lastPage = productService.filterProductsByPrice(null, null, firstPage.nextCursor(), 3);
+        assertEquals(1, lastPage.items().size());
+        assertEquals(new BigDecimal("1000000.00"), lastPage.items().get(0).getPrice());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    void testGetFacetsCountsFilteredProductsInOnePass() {
+        String[][] catalog = {
+            {"Facet Lamp", "19.99", "10"},
+            {"Facet Chair", "49.99", "0"},
+            {"Facet Desk", "249.99", "3"},
+            {"Facet Sofa", "1499.99", "1"}
+        };
+        for (String[] row : catalog) {
+            Product product = new Product();
+            product.setName(row[0]);
+            product.setPrice(new BigDecimal(row[1]));
+            product.setStockQuantity(Integer.parseInt(row[2]));
+            product.setIsAvailable(!"0".equals(row[2]));
+            productService.createProduct(product);
+        }
+
+        ProductService.ProductFacets facets = productService.getFacets("facet", null, null, null);
+        assertEquals(4, facets.total());
+        assertEquals(3, facets.available());
+        assertEquals(1, facets.unavailable());
+        assertEquals(3, facets.inStock());
+        assertEquals(1, facets.outOfStock());
+        assertEquals(List.of(1L, 1L, 0L, 1L, 0L, 0L, 1L),
+            facets.priceBuckets().stream().map(ProductService.PriceBucket::count).toList());
+
+        ProductService.ProductFacets filtered = productService.getFacets(null, new BigDecimal("40.00"), new BigDecimal("300.00"), true);
+        assertEquals(1, filtered.total());
+        assertEquals(1, filtered.inStock());
+    }
+
+    // Runs outside the test transaction so each lookup gets its own session and the product is committed
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testProductEntityLoadsHitSecondLevelCache() {
+        Product savedProduct = productRepository.save(testProduct);
+        try {
+            CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getCacheRegionStatistics("product");
+            productRepository.findById(savedProduct.getId()).orElseThrow();
+            long hitsBefore = region.getHitCount();
+
+            Product reloaded = productRepository.findById(savedProduct.getId()).orElseThrow();
+
+            assertEquals("Test Product", reloaded.getName());
+            assertEquals(hitsBefore + 1, region.getHitCount());
+        } finally {
+            productRepository.deleteById(savedProduct.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testStockUpdatesEvictOnlyTheChangedProductFromSecondLevelCache() {
+        Product changed = productRepository.save(testProduct);
+        Product untouched = new Product();
+        untouched.setName("Untouched Product");
+        untouched.setPrice(new BigDecimal("5.00"));
+        untouched.setStockQuantity(10);
+        untouched = productRepository.save(untouched);
+        try {
+            productRepository.findById(changed.getId()).orElseThrow();
+            productRepository.findById(untouched.getId()).orElseThrow();
+
+            inventoryService.reduceStock(changed.getId(), 30);
+
+            assertTrue(entityManagerFactory.getCache().contains(Product.class, untouched.getId()));
+            assertEquals(70, productRepository.findById(changed.getId()).orElseThrow().getStockQuantity());
+        } finally {
+            productRepository.deleteById(changed.getId());
+            productRepository.deleteById(untouched.getId());
+        }
+    }
 }
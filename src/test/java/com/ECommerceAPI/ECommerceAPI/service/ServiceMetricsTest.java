@@ -0,0 +1,99 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.OrderStatus;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.security.JwtRequestFilter;
+import com.ECommerceAPI.ECommerceAPI.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ServiceMetricsTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JwtRequestFilter jwtRequestFilter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testServiceAndRepositoryCallsAreTimed() {
+        long servicesBefore = count("service.method", "class", ProductService.class.getName(), "method", "createProduct", "exception", "none");
+        long repositoryBefore = count("spring.data.repository.invocations", "repository", "ProductRepository", "method", "save");
+
+        Product product = new Product();
+        product.setName("Timed Product");
+        product.setPrice(new BigDecimal("12.50"));
+        product.setStockQuantity(5);
+        productService.createProduct(product);
+
+        assertEquals(servicesBefore + 1, count("service.method", "class", ProductService.class.getName(), "method", "createProduct", "exception", "none"));
+        assertEquals(repositoryBefore + 1, count("spring.data.repository.invocations", "repository", "ProductRepository", "method", "save"));
+    }
+
+    @Test
+    void testFailedServiceCallsAreTaggedWithException() {
+        long failuresBefore = count("service.method", "class", OrderService.class.getName(), "method", "updateOrderStatus", "exception", "RuntimeException");
+
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(-1L, OrderStatus.SHIPPED));
+
+        assertEquals(failuresBefore + 1, count("service.method", "class", OrderService.class.getName(), "method", "updateOrderStatus", "exception", "RuntimeException"));
+    }
+
+    @Test
+    void testJwtFilterRecordsOutcome() throws Exception {
+        long rejectedBefore = count("security.jwt.filter", "outcome", "rejected");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer not-a-token");
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(rejectedBefore + 1, count("security.jwt.filter", "outcome", "rejected"));
+    }
+
+    @Test
+    void testJwtFilterRejectsTokenOfUnknownUser() throws Exception {
+        long rejectedBefore = count("security.jwt.filter", "outcome", "rejected");
+        String token = jwtUtil.generateToken(new User("deleteduser", "hashed", List.of()));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(rejectedBefore + 1, count("security.jwt.filter", "outcome", "rejected"));
+    }
+
+    private long count(String name, String... tags) {
+        Timer timer = meterRegistry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ECommerceAPI.ECommerceAPI.service;
+
+import com.ECommerceAPI.ECommerceAPI.model.Cart;
+import com.ECommerceAPI.ECommerceAPI.model.Product;
+import com.ECommerceAPI.ECommerceAPI.model.User;
+import com.ECommerceAPI.ECommerceAPI.repository.CartRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.OrderRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.ProductRepository;
+import com.ECommerceAPI.ECommerceAPI.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Flushes run in their own transactions, so this test commits and cleans up after itself
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:writebehinddb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    // Second-level cache regions are JVM-wide; keep this database's entities out of the shared ones
+    "spring.jpa.properties.hibernate.cache.region_prefix=writebehind",
+    "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create",
+    "cart.write-behind.enabled=true",
+    "cart.write-behind.flush-interval=1h"
+})
+@ActiveProfiles("test")
+class WriteBehindCartStoreTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private WriteBehindCartStore writeBehindCartStore;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User testUser;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("writebehinduser");
+        testUser.setEmail("writebehind@example.com");
+        testUser.setPassword("hashed-password");
+        testUser = userRepository.save(testUser);
+
+        testProduct = new Product();
+        testProduct.setName("Buffered Product");
+        testProduct.setPrice(new BigDecimal("10.00"));
+        testProduct.setStockQuantity(50);
+        testProduct = productRepository.save(testProduct);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehindCartStore.flush();
+        orderRepository.deleteAll(orderRepository.findByUser(testUser));
+        cartRepository.findByUserId(testUser.getId()).ifPresent(cartRepository::delete);
+        productRepository.delete(testProduct);
+        userRepository.delete(testUser);
+    }
+
+    @Test
+    void testMutationsStayInMemoryUntilFlush() {
+        cartService.addProductToCart(testUser.getId(), testProduct.getId(), 2);
+        cartService.addProductToCart(testUser.getId(), testProduct.getId(), 3);
+        Cart cart = cartService.removeProductFromCart(testUser.getId(), testProduct.getId(), 1);
+
+        assertEquals(new BigDecimal("40.00"), cart.getTotalAmount());
+        assertEquals(4, cart.getItems().get(0).getQuantity());
+        assertTrue(cartRepository.findByUserId(testUser.getId()).isEmpty());
+
+        writeBehindCartStore.flush();
+
+        Cart persisted = new TransactionTemplate(transactionManager).execute(status -> {
+            Cart loaded = cartRepository.findByUserId(testUser.getId()).orElseThrow();
+            loaded.getItems().size();
+            return loaded;
+        });
+        assertEquals(new BigDecimal("40.00"), persisted.getTotalAmount());
+        assertEquals(1, persisted.getItems().size());
+        assertEquals(4, persisted.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void testClearIsFlushedAsEmptyCart() {
+        cartService.addProductToCart(testUser.getId(), testProduct.getId(), 1);
+        writeBehindCartStore.flush();
+
+        cartService.clearCart(testUser.getId());
+        writeBehindCartStore.flush();
+
+        Cart persisted = cartRepository.findByUserId(testUser.getId()).orElseThrow();
+        assertTrue(persisted.getItems().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(persisted.getTotalAmount()));
+    }
+
+    @Test
+    void testCheckoutRemovesOrderedQuantitiesAfterCommit() {
+        cartService.addProductToCart(testUser.getId(), testProduct.getId(), 3);
+
+        CheckoutService.CheckoutResult result = checkoutService.checkout(testUser.getId(), null, null);
+
+        assertEquals(new BigDecimal("30.00"), result.order().getTotalAmount());
+        assertTrue(cartService.getCartByUserId(testUser.getId()).orElseThrow().getItems().isEmpty());
+        assertEquals(47, productRepository.findById(testProduct.getId()).orElseThrow().getStockQuantity());
+    }
+}